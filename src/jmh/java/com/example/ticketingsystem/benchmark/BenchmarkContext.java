@@ -0,0 +1,106 @@
+package com.example.ticketingsystem.benchmark;
+
+import com.example.ticketingsystem.TicketingSystemApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Поднимает контекст приложения без веб-слоя. По умолчанию база - встроенный Postgres,
+// -Dbenchmark.datasource.url=jdbc:postgresql://... переключает на локально запущенный сервер
+public final class BenchmarkContext implements AutoCloseable {
+
+    private final EmbeddedPostgres embeddedPostgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(EmbeddedPostgres embeddedPostgres, ConfigurableApplicationContext context) {
+        this.embeddedPostgres = embeddedPostgres;
+        this.context = context;
+    }
+
+    public static BenchmarkContext start() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        EmbeddedPostgres embeddedPostgres = null;
+
+        if (url == null) {
+            try {
+                embeddedPostgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded Postgres", e);
+            }
+            url = embeddedPostgres.getJdbcUrl("postgres", "postgres");
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+        properties.put("spring.liquibase.change-log", "classpath:db/changelog/db.changelog-master.yaml");
+        properties.put("JWT_SECRET", "benchmark-secret-benchmark-secret-benchmark-secret");
+        properties.put("JWT_EXPIRATION", "3600000");
+        properties.put("app.orders.expiry.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TicketingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+        return new BenchmarkContext(embeddedPostgres, context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public SeedData seed(String prefix) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Long userId = jdbcTemplate.queryForObject("""
+                INSERT INTO users (username, email, password_hash, first_name, last_name)
+                VALUES (?, ?, 'benchmark', 'Bench', 'Mark')
+                RETURNING id
+                """, Long.class, prefix + "-user", prefix + "@benchmark.local");
+
+        Long organizerId = jdbcTemplate.queryForObject("""
+                INSERT INTO organizers (name, contact_email, user_id)
+                VALUES (?, ?, ?)
+                RETURNING id
+                """, Long.class, prefix + " organizer", prefix + "@benchmark.local", userId);
+
+        Long eventId = jdbcTemplate.queryForObject("""
+                INSERT INTO events (title, organizer_id, start_datetime, end_datetime, event_status)
+                VALUES (?, ?, ?, ?, 'published')
+                RETURNING id
+                """, Long.class, prefix + " event", organizerId,
+                LocalDateTime.now().plusMonths(1), LocalDateTime.now().plusMonths(1).plusHours(3));
+
+        Long ticketCategoryId = jdbcTemplate.queryForObject("""
+                INSERT INTO ticket_categories (event_id, name, price, quantity_available)
+                VALUES (?, 'Standard', ?, ?)
+                RETURNING id
+                """, Long.class, eventId, new BigDecimal("1500.00"), Integer.MAX_VALUE);
+
+        return new SeedData(userId, eventId, ticketCategoryId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    public record SeedData(Long userId, Long eventId, Long ticketCategoryId) {}
+}
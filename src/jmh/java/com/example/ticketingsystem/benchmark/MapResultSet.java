@@ -0,0 +1,38 @@
+package com.example.ticketingsystem.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.Map;
+
+// Однострочный ResultSet поверх Map: изолирует стоимость маппинга от драйвера и сети
+final class MapResultSet {
+
+    private MapResultSet() {
+    }
+
+    static ResultSet of(Map<String, Object> row) {
+        boolean[] lastWasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if ("wasNull".equals(method.getName())) {
+                        return lastWasNull[0];
+                    }
+                    if (args == null || !(args[0] instanceof String column)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Object value = row.get(column);
+                    lastWasNull[0] = value == null;
+                    return switch (method.getName()) {
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                        case "getString" -> value == null ? null : value.toString();
+                        case "getBigDecimal" -> (BigDecimal) value;
+                        case "getObject" -> args.length == 2 ? ((Class<?>) args[1]).cast(value) : value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ticketingsystem.benchmark;
+
+import com.example.ticketingsystem.dto.request.OrderItemRequest;
+import com.example.ticketingsystem.model.Order;
+import com.example.ticketingsystem.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private BenchmarkContext context;
+    private OrderService orderService;
+    private List<OrderItemRequest> items;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        orderService = context.getBean(OrderService.class);
+        BenchmarkContext.SeedData seed = context.seed("order-" + UUID.randomUUID());
+        userId = seed.userId();
+        items = List.of(new OrderItemRequest(seed.ticketCategoryId(), 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(userId, items);
+    }
+
+    @Benchmark
+    public Order processPayment(PendingOrder pendingOrder) {
+        return orderService.processPayment(pendingOrder.orderId, "pay-" + pendingOrder.orderId);
+    }
+
+    @State(Scope.Thread)
+    public static class PendingOrder {
+
+        Long orderId;
+
+        @Setup(Level.Invocation)
+        public void create(OrderServiceBenchmark benchmark) {
+            orderId = benchmark.orderService.createOrder(benchmark.userId, benchmark.items).getId();
+        }
+    }
+}
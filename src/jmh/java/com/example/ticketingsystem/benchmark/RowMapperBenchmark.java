@@ -0,0 +1,102 @@
+package com.example.ticketingsystem.benchmark;
+
+import com.example.ticketingsystem.mapper.*;
+import com.example.ticketingsystem.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+
+    private final OrderRowMapper orderRowMapper = new OrderRowMapper();
+    private final EventRowMapper eventRowMapper = new EventRowMapper();
+    private final TicketCategoryRowMapper ticketCategoryRowMapper = new TicketCategoryRowMapper();
+    private final TicketRowMapper ticketRowMapper = new TicketRowMapper();
+    private final OrderItemRowMapper orderItemRowMapper = new OrderItemRowMapper();
+
+    private ResultSet orderRow;
+    private ResultSet eventRow;
+    private ResultSet ticketCategoryRow;
+    private ResultSet ticketRow;
+    private ResultSet orderItemRow;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        orderRow = MapResultSet.of(Map.of(
+                "id", 1L,
+                "order_number", "ORD-1700000000000-ABCDEF12",
+                "user_id", 42L,
+                "status", "pending",
+                "total_amount", new BigDecimal("4500.00"),
+                "created_at", now));
+        eventRow = MapResultSet.of(Map.of(
+                "id", 7L,
+                "title", "Benchmark concert",
+                "description", "An event used to measure row mapping",
+                "organizer_id", 3L,
+                "venue_id", 5L,
+                "start_datetime", now.plusDays(30),
+                "end_datetime", now.plusDays(30).plusHours(3),
+                "event_status", "published"));
+        ticketCategoryRow = MapResultSet.of(Map.of(
+                "id", 11L,
+                "event_id", 7L,
+                "name", "Standard",
+                "description", "General admission",
+                "price", new BigDecimal("1500.00"),
+                "quantity_available", 1000,
+                "sale_start_date", now.minusDays(1),
+                "sale_end_date", now.plusDays(29)));
+        ticketRow = MapResultSet.of(Map.of(
+                "id", 100L,
+                "ticket_code", "TKT-1700000000000-ABCDEF12",
+                "order_item_id", 55L,
+                "attendee_name", "Ivan Ivanov",
+                "attendee_email", "ivan@example.com",
+                "status", "active"));
+        orderItemRow = MapResultSet.of(Map.of(
+                "id", 55L,
+                "order_id", 1L,
+                "ticket_category_id", 11L,
+                "quantity", 3,
+                "unit_price", new BigDecimal("1500.00"),
+                "promo_code_id", 9L));
+    }
+
+    @Benchmark
+    public Order orderRowMapper() throws SQLException {
+        return orderRowMapper.mapRow(orderRow, 0);
+    }
+
+    @Benchmark
+    public Event eventRowMapper() throws SQLException {
+        return eventRowMapper.mapRow(eventRow, 0);
+    }
+
+    @Benchmark
+    public TicketCategory ticketCategoryRowMapper() throws SQLException {
+        return ticketCategoryRowMapper.mapRow(ticketCategoryRow, 0);
+    }
+
+    @Benchmark
+    public Ticket ticketRowMapper() throws SQLException {
+        return ticketRowMapper.mapRow(ticketRow, 0);
+    }
+
+    @Benchmark
+    public OrderItem orderItemRowMapper() throws SQLException {
+        return orderItemRowMapper.mapRow(orderItemRow, 0);
+    }
+}
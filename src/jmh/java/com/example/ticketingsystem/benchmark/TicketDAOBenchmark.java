@@ -0,0 +1,74 @@
+package com.example.ticketingsystem.benchmark;
+
+import com.example.ticketingsystem.dto.request.OrderItemRequest;
+import com.example.ticketingsystem.model.Order;
+import com.example.ticketingsystem.model.Ticket;
+import com.example.ticketingsystem.repository.OrderItemDAO;
+import com.example.ticketingsystem.repository.TicketDAO;
+import com.example.ticketingsystem.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketDAOBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Param({"1", "10", "100"})
+    private int batchSize;
+
+    private BenchmarkContext context;
+    private TicketDAO ticketDAO;
+    private Long orderItemId;
+    private String codePrefix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        ticketDAO = context.getBean(TicketDAO.class);
+        codePrefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+        BenchmarkContext.SeedData seed = context.seed("tickets-" + UUID.randomUUID());
+        Order order = context.getBean(OrderService.class)
+                .createOrder(seed.userId(), List.of(new OrderItemRequest(seed.ticketCategoryId(), 1)));
+        orderItemId = context.getBean(OrderItemDAO.class).findByOrderId(order.getId()).getFirst().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public int[] batchCreate() {
+        return ticketDAO.batchCreate(newTickets());
+    }
+
+    @Benchmark
+    public int bulkCreate() {
+        return ticketDAO.bulkCreate(newTickets());
+    }
+
+    private List<Ticket> newTickets() {
+        List<Ticket> tickets = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setTicketCode(codePrefix + sequence.incrementAndGet());
+            ticket.setOrderItemId(orderItemId);
+            ticket.setStatus("active");
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+}
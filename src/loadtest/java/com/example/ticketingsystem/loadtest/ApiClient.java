@@ -0,0 +1,87 @@
+package com.example.ticketingsystem.loadtest;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+// Тонкая обертка над HttpClient: запросы и разбор JSON без измерений, учет ведет VirtualUser
+final class ApiClient {
+
+    private final HttpClient httpClient;
+    private final JsonMapper jsonMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    ApiClient(String baseUrl, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.jsonMapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    HttpResponse<byte[]> exchange(String method, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    <T> T read(byte[] body, Class<T> type) {
+        return jsonMapper.readValue(body, type);
+    }
+
+    <T> List<T> readList(byte[] body, Class<T> type) {
+        return jsonMapper.readValue(body, jsonMapper.getTypeFactory().constructCollectionType(List.class, type));
+    }
+
+    record AuthView(String token, Long userId) {}
+
+    record EventView(Long id, String eventStatus) {}
+
+    record CategoryView(Long id, Long eventId, Integer quantityAvailable,
+                        LocalDateTime saleStartDate, LocalDateTime saleEndDate) {
+
+        boolean onSale(LocalDateTime now) {
+            return (quantityAvailable == null || quantityAvailable > 0)
+                    && (saleStartDate == null || !saleStartDate.isAfter(now))
+                    && (saleEndDate == null || !saleEndDate.isBefore(now));
+        }
+    }
+
+    record PromoCodeView(String code, Long eventId, Integer maxUses, Integer usedCount,
+                         LocalDateTime validFrom, LocalDateTime validUntil) {
+
+        boolean usable(LocalDateTime now) {
+            return (maxUses == null || usedCount == null || usedCount < maxUses)
+                    && (validFrom == null || !validFrom.isAfter(now))
+                    && (validUntil == null || !validUntil.isBefore(now));
+        }
+    }
+
+    record OrderView(Long id, String status) {}
+}
@@ -0,0 +1,73 @@
+package com.example.ticketingsystem.loadtest;
+
+import com.example.ticketingsystem.loadtest.ApiClient.CategoryView;
+import com.example.ticketingsystem.loadtest.ApiClient.PromoCodeView;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+// Опубликованные мероприятия в порядке "популярности" и последние увиденные категории.
+// Порядок перемешивается с фиксированным seed, чтобы горячими были не просто мероприятия с меньшими id
+final class Catalog {
+
+    private final List<Long> eventIds;
+    private final ZipfianSampler sampler;
+    private final Map<Long, List<CategoryView>> categories = new ConcurrentHashMap<>();
+    private final List<String> globalPromoCodes;
+    private final Map<Long, List<String>> eventPromoCodes;
+
+    Catalog(List<Long> eventIds, List<PromoCodeView> promoCodes, double zipfExponent, long seed) {
+        List<Long> ranked = new ArrayList<>(eventIds);
+        Collections.shuffle(ranked, new Random(seed));
+        this.eventIds = List.copyOf(ranked);
+        this.sampler = new ZipfianSampler(ranked.size(), zipfExponent);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> global = new ArrayList<>();
+        Map<Long, List<String>> byEvent = new HashMap<>();
+        for (PromoCodeView promoCode : promoCodes) {
+            if (!promoCode.usable(now)) {
+                continue;
+            }
+            if (promoCode.eventId() == null) {
+                global.add(promoCode.code());
+            } else {
+                byEvent.computeIfAbsent(promoCode.eventId(), id -> new ArrayList<>()).add(promoCode.code());
+            }
+        }
+        this.globalPromoCodes = List.copyOf(global);
+        this.eventPromoCodes = byEvent;
+    }
+
+    int eventCount() {
+        return eventIds.size();
+    }
+
+    int promoCodeCount() {
+        return globalPromoCodes.size() + eventPromoCodes.values().stream().mapToInt(List::size).sum();
+    }
+
+    long pickEvent(RandomGenerator random) {
+        return eventIds.get(sampler.next(random));
+    }
+
+    void putCategories(long eventId, List<CategoryView> eventCategories) {
+        categories.put(eventId, eventCategories);
+    }
+
+    Optional<List<CategoryView>> categories(long eventId) {
+        return Optional.ofNullable(categories.get(eventId));
+    }
+
+    Optional<String> pickPromoCode(long eventId, RandomGenerator random) {
+        List<String> forEvent = eventPromoCodes.getOrDefault(eventId, List.of());
+        int total = forEvent.size() + globalPromoCodes.size();
+        if (total == 0) {
+            return Optional.empty();
+        }
+        int index = random.nextInt(total);
+        return Optional.of(index < forEvent.size() ? forEvent.get(index) : globalPromoCodes.get(index - forEvent.size()));
+    }
+}
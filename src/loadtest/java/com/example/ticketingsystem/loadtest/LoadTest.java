@@ -0,0 +1,177 @@
+package com.example.ticketingsystem.loadtest;
+
+import com.example.ticketingsystem.loadtest.ApiClient.AuthView;
+import com.example.ticketingsystem.loadtest.ApiClient.EventView;
+import com.example.ticketingsystem.loadtest.ApiClient.PromoCodeView;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузочный прогон по HTTP API запущенного приложения. Стандартный стенд:
+//   APP_GENERATE_TEST_DATA=true APP_TEST_DATA_SCALE=10 APP_RATE_LIMIT_ENABLED=false docker compose up
+//   mvn -Ploadtest test-compile exec:java -Dloadtest.scale=10 -Dloadtest.duration-seconds=120
+// Клиенты регистрируют собственные учетные записи, поэтому на стенде лимит запросов лучше отключить -
+// иначе он и станет измеряемым узким местом (такие ответы попадают в колонку 429).
+// Итоговые гистограммы по операциям пишутся в loadtest.output-dir в формате HdrHistogram (.hgrm)
+public final class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ApiClient api = new ApiClient(config.baseUrl(), config.requestTimeout());
+
+        Catalog catalog = loadCatalog(api, config);
+        System.out.printf("Catalog: %d published events, %d usable promo codes%n",
+                catalog.eventCount(), catalog.promoCodeCount());
+        List<Account> accounts = registerAccounts(api, "client", config.accounts());
+        System.out.printf("Registered %d accounts, starting %d clients: warmup %ds, measurement %ds, mix %s%n",
+                accounts.size(), config.clients(), config.warmup().toSeconds(), config.duration().toSeconds(),
+                config.mix());
+
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        long startNanos = System.nanoTime();
+        long measurementStartNanos = startNanos + config.warmup().toNanos();
+        long deadlineNanos = measurementStartNanos + config.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.clients(); i++) {
+                clients.submit(new VirtualUser(api, catalog, stats, config, accounts.get(i % accounts.size()),
+                        config.seed() + i, deadlineNanos));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(measurementStartNanos - System.nanoTime());
+            stats.values().forEach(OperationStats::reset);
+            System.out.println("Warmup finished, measuring...");
+        }
+        double measuredSeconds = (System.nanoTime() - measurementStartNanos) / 1e9;
+
+        report(stats, measuredSeconds, config);
+    }
+
+    private static Catalog loadCatalog(ApiClient api, LoadTestConfig config) throws IOException, InterruptedException {
+        List<Long> eventIds = api.readList(expectOk(api.exchange("GET", "/api/events/published", null, null)),
+                        EventView.class).stream()
+                .map(EventView::id)
+                .toList();
+        if (eventIds.isEmpty()) {
+            throw new IllegalStateException("No published events at " + config.baseUrl() + ", seed the database first");
+        }
+
+        // Список промокодов доступен только с авторизацией
+        Account reader = registerAccounts(api, "reader", 1).getFirst();
+        List<PromoCodeView> promoCodes = api.readList(
+                expectOk(api.exchange("GET", "/api/promo-codes", reader.token(), null)), PromoCodeView.class);
+
+        return new Catalog(eventIds, promoCodes, config.zipfExponent(), config.seed());
+    }
+
+    private static List<Account> registerAccounts(ApiClient api, String role, int count)
+            throws IOException, InterruptedException {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = "lt-" + RUN_ID + "-" + role + "-" + i;
+            Map<String, String> request = Map.of(
+                    "username", username,
+                    "email", username + "@loadtest.local",
+                    "password", PASSWORD,
+                    "firstName", "Load",
+                    "lastName", "Test"
+            );
+
+            while (true) {
+                HttpResponse<byte[]> response = api.exchange("POST", "/api/auth/register", null, request);
+                if (response.statusCode() == 429) {
+                    long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                    TimeUnit.SECONDS.sleep(retryAfter);
+                    continue;
+                }
+                AuthView auth = api.read(expectOk(response), AuthView.class);
+                accounts.add(new Account(auth.token(), auth.userId()));
+                break;
+            }
+        }
+        return accounts;
+    }
+
+    private static byte[] expectOk(HttpResponse<byte[]> response) {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Setup request " + response.request().method() + " "
+                    + response.request().uri() + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static void report(Map<Operation, OperationStats> stats, double seconds, LoadTestConfig config)
+            throws IOException {
+        Files.createDirectories(config.outputDir());
+        Histogram total = null;
+        long totalOps = 0;
+
+        System.out.println();
+        System.out.printf("%-11s %9s %9s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "ops", "ops/s", "4xx", "429", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.total() == 0) {
+                continue;
+            }
+            printRow(entry.getKey().label(), snapshot.histogram(), snapshot.total(), seconds,
+                    snapshot.rejected(), snapshot.throttled(), snapshot.failed());
+            writeHistogram(config, entry.getKey().label(), snapshot.histogram());
+
+            totalOps += snapshot.total();
+            if (total == null) {
+                total = snapshot.histogram().copy();
+            } else {
+                total.add(snapshot.histogram());
+            }
+        }
+        if (total != null) {
+            printRow("total", total, totalOps, seconds, -1, -1, -1);
+            writeHistogram(config, "total", total);
+        }
+        System.out.printf("%nMeasured %.1f s; ops counts every response, latency percentiles cover 2xx only. "
+                + "Histograms: %s%n", seconds, config.outputDir().toAbsolutePath());
+    }
+
+    private static void printRow(String name, Histogram histogram, long ops, double seconds,
+                                 long rejected, long throttled, long failed) {
+        System.out.printf("%-11s %9d %9.1f %8s %8s %8s %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, ops, ops / seconds,
+                rejected < 0 ? "" : Long.toString(rejected),
+                throttled < 0 ? "" : Long.toString(throttled),
+                failed < 0 ? "" : Long.toString(failed),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static void writeHistogram(LoadTestConfig config, String name, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(config.outputDir().resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    record Account(String token, long userId) {}
+}
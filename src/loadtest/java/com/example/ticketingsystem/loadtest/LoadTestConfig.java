@@ -0,0 +1,67 @@
+package com.example.ticketingsystem.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Все параметры - системные свойства loadtest.*, например mvn -Ploadtest test-compile exec:java -Dloadtest.clients=500
+record LoadTestConfig(
+        String baseUrl,
+        int clients,
+        int accounts,
+        Duration warmup,
+        Duration duration,
+        double ratePerClient,
+        Duration thinkTime,
+        Duration requestTimeout,
+        Map<Operation, Integer> mix,
+        double zipfExponent,
+        long seed,
+        Path outputDir
+) {
+
+    static final String DEFAULT_MIX = "browse=35,categories=30,order=15,promo=5,pay=10,cancel=5";
+
+    static LoadTestConfig fromSystemProperties() {
+        // Масштаб умножает число клиентов и учетных записей - в пару к app.test-data.scale у генератора данных
+        int scale = Integer.getInteger("loadtest.scale", 1);
+        if (scale < 1) {
+            throw new IllegalArgumentException("loadtest.scale must be at least 1");
+        }
+
+        return new LoadTestConfig(
+                System.getProperty("loadtest.base-url", "http://localhost:8080"),
+                Integer.getInteger("loadtest.clients", 100) * scale,
+                Integer.getInteger("loadtest.accounts", 20) * scale,
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                Double.parseDouble(System.getProperty("loadtest.rate-per-client", "0")),
+                Duration.ofMillis(Long.getLong("loadtest.think-time-ms", 0)),
+                Duration.ofMillis(Long.getLong("loadtest.request-timeout-ms", 10000)),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0")),
+                Long.getLong("loadtest.seed", 42),
+                Path.of(System.getProperty("loadtest.output-dir", "target/loadtest"))
+        );
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in loadtest.mix: " + part);
+            }
+            mix.put(Operation.fromName(pair[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("loadtest.mix has no operations with positive weight");
+        }
+        return mix;
+    }
+}
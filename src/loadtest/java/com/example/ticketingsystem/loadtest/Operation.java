@@ -0,0 +1,30 @@
+package com.example.ticketingsystem.loadtest;
+
+import java.util.Arrays;
+
+enum Operation {
+
+    BROWSE("browse"),
+    CATEGORIES("categories"),
+    ORDER("order"),
+    PROMO("promo"),
+    PAY("pay"),
+    CANCEL("cancel");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load test operation: " + name));
+    }
+}
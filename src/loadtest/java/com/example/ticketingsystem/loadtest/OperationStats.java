@@ -0,0 +1,58 @@
+package com.example.ticketingsystem.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Задержки успешных ответов в микросекундах; Recorder пишется из многих потоков без блокировок
+final class OperationStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+        succeeded.increment();
+    }
+
+    // 4xx кроме 429: бизнес-отказ вроде распроданной категории или истекшего промокода
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordThrottled() {
+        throttled.increment();
+    }
+
+    // 5xx, таймауты и сетевые ошибки
+    void recordFailed() {
+        failed.increment();
+    }
+
+    // Сбрасывает все, что накопилось за прогрев
+    void reset() {
+        recorder.reset();
+        succeeded.reset();
+        rejected.reset();
+        throttled.reset();
+        failed.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(recorder.getIntervalHistogram(), succeeded.sum(), rejected.sum(), throttled.sum(), failed.sum());
+    }
+
+    record Snapshot(Histogram histogram, long succeeded, long rejected, long throttled, long failed) {
+
+        long total() {
+            return succeeded + rejected + throttled + failed;
+        }
+    }
+}
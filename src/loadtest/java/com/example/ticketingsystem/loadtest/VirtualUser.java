@@ -0,0 +1,226 @@
+package com.example.ticketingsystem.loadtest;
+
+import com.example.ticketingsystem.loadtest.ApiClient.CategoryView;
+import com.example.ticketingsystem.loadtest.ApiClient.OrderView;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Один клиент на виртуальном потоке. Без rate-per-client работает по замкнутому циклу; с ним запросы идут
+// по расписанию, и задержка считается от запланированного момента, а не от фактической отправки -
+// иначе медленный сервер сам себе снижает нагрузку и прячет хвост (coordinated omission)
+final class VirtualUser implements Runnable {
+
+    private static final int MAX_PENDING_ORDERS = 10;
+    private static final int MAX_BROWSE_PAGES = 5;
+
+    private final ApiClient api;
+    private final Catalog catalog;
+    private final Map<Operation, OperationStats> stats;
+    private final LoadTestConfig config;
+    private final LoadTest.Account account;
+    private final SplittableRandom random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final long deadlineNanos;
+    private final Deque<PendingOrder> pendingOrders = new ArrayDeque<>();
+    private String browseCursor;
+    private int browsePage;
+
+    VirtualUser(ApiClient api, Catalog catalog, Map<Operation, OperationStats> stats, LoadTestConfig config,
+                LoadTest.Account account, long seed, long deadlineNanos) {
+        this.api = api;
+        this.catalog = catalog;
+        this.stats = stats;
+        this.config = config;
+        this.account = account;
+        this.random = new SplittableRandom(seed);
+        this.deadlineNanos = deadlineNanos;
+
+        List<Map.Entry<Operation, Integer>> weighted = config.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        this.operations = new Operation[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int sum = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            operations[i] = weighted.get(i).getKey();
+            sum += weighted.get(i).getValue();
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    @Override
+    public void run() {
+        long intervalNanos = config.ratePerClient() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / config.ratePerClient()) : 0;
+        // Разносим старт клиентов по первому интервалу, чтобы не было залпа
+        long nextStart = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+
+        try {
+            while (System.nanoTime() < deadlineNanos) {
+                long startNanos;
+                if (intervalNanos > 0) {
+                    long waitNanos = nextStart - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                    startNanos = nextStart;
+                    nextStart += intervalNanos;
+                } else {
+                    startNanos = System.nanoTime();
+                }
+
+                perform(pickOperation(), startNanos);
+
+                if (!config.thinkTime().isZero()) {
+                    Thread.sleep(config.thinkTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Operation pickOperation() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void perform(Operation operation, long startNanos) throws InterruptedException {
+        switch (operation) {
+            case BROWSE -> browse(startNanos);
+            case CATEGORIES -> loadCategories(catalog.pickEvent(random), startNanos);
+            case ORDER -> createOrder(startNanos);
+            // Без неоплаченного заказа промокод, оплату и отмену применить не к чему - сначала создаем заказ
+            case PROMO, PAY, CANCEL -> {
+                if (pendingOrders.isEmpty()) {
+                    createOrder(startNanos);
+                } else {
+                    updateOrder(operation, startNanos);
+                }
+            }
+        }
+    }
+
+    // Листает общий список мероприятий по курсору, после нескольких страниц начинает заново
+    private void browse(long startNanos) throws InterruptedException {
+        String path = "/api/events?size=20" + (browseCursor != null ? "&cursor=" + browseCursor : "");
+        HttpResponse<byte[]> response = execute(Operation.BROWSE, "GET", path, null, startNanos);
+        String nextCursor = response != null ? response.headers().firstValue("X-Next-Cursor").orElse(null) : null;
+        if (nextCursor == null || ++browsePage >= MAX_BROWSE_PAGES) {
+            browseCursor = null;
+            browsePage = 0;
+        } else {
+            browseCursor = nextCursor;
+        }
+    }
+
+    private List<CategoryView> loadCategories(long eventId, long startNanos) throws InterruptedException {
+        HttpResponse<byte[]> response = execute(Operation.CATEGORIES, "GET", "/api/events/" + eventId + "/tickets",
+                null, startNanos);
+        if (response == null) {
+            return List.of();
+        }
+        List<CategoryView> categories = api.readList(response.body(), CategoryView.class);
+        catalog.putCategories(eventId, categories);
+        return categories;
+    }
+
+    private void createOrder(long startNanos) throws InterruptedException {
+        long eventId = catalog.pickEvent(random);
+        List<CategoryView> categories = catalog.categories(eventId).orElse(null);
+        if (categories == null) {
+            // Как и живой покупатель, сначала открываем категории мероприятия. Заказ по-прежнему меряем
+            // от запланированного старта - иначе отставание от расписания выпадет из задержки
+            categories = loadCategories(eventId, startNanos);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CategoryView> onSale = categories.stream().filter(category -> category.onSale(now)).toList();
+        if (onSale.isEmpty()) {
+            return;
+        }
+        CategoryView category = onSale.get(random.nextInt(onSale.size()));
+        Map<String, Object> request = Map.of(
+                "userId", account.userId(),
+                "items", List.of(Map.of("ticketCategoryId", category.id(), "quantity", 1 + random.nextInt(2)))
+        );
+
+        HttpResponse<byte[]> response = execute(Operation.ORDER, "POST", "/api/orders", request, startNanos);
+        if (response != null) {
+            OrderView order = api.read(response.body(), OrderView.class);
+            pendingOrders.addLast(new PendingOrder(order.id(), eventId));
+            if (pendingOrders.size() > MAX_PENDING_ORDERS) {
+                // Брошенный заказ позже снимет планировщик истечения
+                pendingOrders.removeFirst();
+            }
+        }
+    }
+
+    private void updateOrder(Operation operation, long startNanos) throws InterruptedException {
+        PendingOrder order = pendingOrders.peekLast();
+        switch (operation) {
+            case PROMO -> {
+                Optional<String> code = catalog.pickPromoCode(order.eventId(), random);
+                if (code.isEmpty() || order.promoApplied()) {
+                    createOrder(startNanos);
+                    return;
+                }
+                pendingOrders.removeLast();
+                pendingOrders.addLast(new PendingOrder(order.id(), order.eventId(), true));
+                execute(Operation.PROMO, "POST", "/api/orders/" + order.id() + "/apply-promo",
+                        Map.of("code", code.get()), startNanos);
+            }
+            case PAY -> {
+                pendingOrders.removeLast();
+                execute(Operation.PAY, "POST", "/api/orders/" + order.id() + "/payment",
+                        Map.of("externalPaymentId", "LT-" + order.id()), startNanos);
+            }
+            case CANCEL -> {
+                pendingOrders.removeLast();
+                execute(Operation.CANCEL, "PATCH", "/api/orders/" + order.id() + "/cancel", null, startNanos);
+            }
+            default -> throw new IllegalArgumentException("Not an order update: " + operation);
+        }
+    }
+
+    // null, если запрос не удался; исход и задержка учитываются в статистике операции
+    private HttpResponse<byte[]> execute(Operation operation, String method, String path, Object body, long startNanos)
+            throws InterruptedException {
+        OperationStats operationStats = stats.get(operation);
+        try {
+            HttpResponse<byte[]> response = api.exchange(method, path, account.token(), body);
+            long latencyNanos = System.nanoTime() - startNanos;
+            int status = response.statusCode();
+            if (status < 300) {
+                operationStats.recordSuccess(latencyNanos);
+                return response;
+            }
+            if (status == 429) {
+                operationStats.recordThrottled();
+            } else if (status < 500) {
+                operationStats.recordRejected();
+            } else {
+                operationStats.recordFailed();
+            }
+        } catch (IOException e) {
+            operationStats.recordFailed();
+        }
+        return null;
+    }
+
+    private record PendingOrder(long id, long eventId, boolean promoApplied) {
+
+        PendingOrder(long id, long eventId) {
+            this(id, eventId, false);
+        }
+    }
+}
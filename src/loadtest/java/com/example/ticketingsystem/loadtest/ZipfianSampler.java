@@ -0,0 +1,32 @@
+package com.example.ticketingsystem.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Ранг k выпадает с вероятностью ~ 1 / k^s: при s = 1 первые 1% мероприятий получают заметную долю трафика,
+// s = 0 - равномерное распределение. CDF считается один раз, выборка - двоичный поиск
+final class ZipfianSampler {
+
+    private final double[] cumulative;
+
+    ZipfianSampler(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Zipfian sampler needs at least one element");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int position = index >= 0 ? index : -index - 1;
+        return Math.min(position, cumulative.length - 1);
+    }
+}
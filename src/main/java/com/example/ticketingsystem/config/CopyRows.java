@@ -0,0 +1,64 @@
+package com.example.ticketingsystem.config;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Строки в текстовом формате COPY: поля через табуляцию, \N вместо NULL, спецсимволы экранируются.
+// Даты пишутся через toString - ISO 8601 с 'T' PostgreSQL принимает
+final class CopyRows {
+
+    private final StringBuilder buffer = new StringBuilder(64 * 1024);
+    private boolean rowStarted;
+    private int rowCount;
+
+    CopyRows add(Object value) {
+        if (rowStarted) {
+            buffer.append('\t');
+        }
+        rowStarted = true;
+
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof String text) {
+            appendEscaped(text);
+        } else {
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    void endRow() {
+        buffer.append('\n');
+        rowStarted = false;
+        rowCount++;
+    }
+
+    int size() {
+        return rowCount;
+    }
+
+    void copyTo(Connection connection, String table, String columns) throws SQLException, IOException {
+        if (rowCount == 0) {
+            return;
+        }
+        connection.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + table + " (" + columns + ") FROM STDIN", new StringReader(buffer.toString()));
+    }
+
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+}
@@ -6,27 +6,52 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Данные пишутся через COPY FROM STDIN параллельными порциями, у каждой порции своя транзакция.
+// id заранее берутся диапазонами из последовательностей, поэтому ссылки между таблицами известны до вставки
 @Component
 public class TestDataGenerator implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(TestDataGenerator.class);
+    private static final int CHUNK_SIZE = 5000;
+    private static final int ADMIN_COUNT = 5;
+    private static final String[] CATEGORY_NAMES = {"VIP", "Фан-зона", "Партер", "Балкон", "Стандарт"};
+
     private final JdbcTemplate jdbcTemplate;
-    private final Faker faker = new Faker(new Locale("ru"));
+    private final DataSource dataSource;
+    // Faker не потокобезопасен
+    private final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(() -> new Faker(new Locale("ru")));
+    private final AtomicLong ticketCounter = new AtomicLong();
 
     @Value("${app.generate-test-data:false}")
     private boolean generateTestData;
 
-    public TestDataGenerator(JdbcTemplate jdbcTemplate) {
+    // Множитель объема: 1 - 5000 пользователей и 50000 заказов, 10 и 100 - для нагрузочных стендов
+    @Value("${app.test-data.scale:1}")
+    private int scale;
+
+    @Value("${app.test-data.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    public TestDataGenerator(JdbcTemplate jdbcTemplate, DataSource dataSource) {
         this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
     }
 
     @Override
@@ -41,166 +66,128 @@ public class TestDataGenerator implements CommandLineRunner {
             log.info("Database already contains data. Skipping test data generation.");
             return;
         }
+        if (scale < 1) {
+            throw new IllegalStateException("app.test-data.scale must be at least 1");
+        }
 
-        log.info("Starting test data generation...");
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        log.info("Starting test data generation with scale {} on {} threads...", scale, threads);
         long startTime = System.currentTimeMillis();
 
-        generateAllData();
+        pool = new ForkJoinPool(threads);
+        try {
+            generateAllData();
+        } finally {
+            pool.shutdown();
+        }
 
         long endTime = System.currentTimeMillis();
         log.info("Test data generation completed in {} seconds", (endTime - startTime) / 1000);
     }
 
-    @Transactional
     public void generateAllData() {
-        List<Long> userIds = generateUsers(5000);
-        generateUserRoles(userIds);
-        List<Long> organizerIds = generateOrganizers(100, userIds);
-        List<Long> venueIds = generateVenues(150);
-        List<Long> eventIds = generateEvents(1000, organizerIds, venueIds);
-        List<Long> eventTagIds = generateEventTags(30);
-        generateEventTagAssignments(eventIds, eventTagIds);
-        Map<Long, List<Long>> eventTicketCategories = generateTicketCategories(eventIds);
-        List<Long> promoCodeIds = generatePromoCodes(300, eventIds);
-        List<Long> orderIds = generateOrders(50000, userIds);
-        generateOrderItems(orderIds, eventTicketCategories, promoCodeIds);
-        generatePayments(orderIds);
-        generateTickets();
-    }
-
-    private List<Long> generateUsers(int count) {
-        log.info("Generating {} users...", count);
-        List<Long> userIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO users (username, email, password_hash, first_name, last_name)
-            VALUES (?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String username = faker.internet().username() + "_" + i;
-            String email = "user" + i + "_" + faker.internet().emailAddress();
-            String passwordHash = "$2a$10$" + faker.internet().password(40, 60, true, true);
-            String firstName = faker.name().firstName();
-            String lastName = faker.name().lastName();
-
-            Long id = jdbcTemplate.queryForObject(sql, Long.class,
-                    username, email, passwordHash, firstName, lastName);
-            userIds.add(id);
+        int userCount = 5000 * scale;
+        int organizerCount = 100 * scale;
 
-            if ((i + 1) % 1000 == 0) {
-                log.info("Generated {} users", i + 1);
-            }
-        }
+        long firstUserId = generateUsers(userCount, organizerCount);
+        long firstOrganizerId = generateOrganizers(organizerCount, firstUserId);
+        long firstVenueId = generateVenues(150 * scale);
+        List<Long> eventTagIds = generateEventTags(30);
+        long firstEventId = allocateIds("events", 1000 * scale);
+        long[][] eventCategoryIds = generateEvents(1000 * scale, firstEventId, firstOrganizerId, organizerCount,
+                firstVenueId, 150 * scale, eventTagIds);
+        long firstPromoCodeId = generatePromoCodes(300 * scale, firstEventId, eventCategoryIds.length);
+        generateOrders(50000 * scale, firstUserId, userCount, eventCategoryIds, firstPromoCodeId, 300 * scale);
 
-        return userIds;
+        Integer ticketCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Integer.class);
+        log.info("Total tickets generated: {}", ticketCount);
     }
 
-    private void generateUserRoles(List<Long> userIds) {
-        log.info("Generating user roles...");
-
-        Long roleUserId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'user'", Long.class);
-        Long roleOrganizerId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'organizer'", Long.class);
-        Long roleAdminId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'admin'", Long.class);
-
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for (int i = 0; i < userIds.size(); i++) {
-            Long userId = userIds.get(i);
-
-            if (i < 5) {
-                batchArgs.add(new Object[]{userId, roleAdminId});
-            } else if (i < 105) {
-                batchArgs.add(new Object[]{userId, roleOrganizerId});
+    private long generateUsers(int count, int organizerCount) {
+        log.info("Generating {} users...", count);
+        long roleUserId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'user'", Long.class);
+        long roleOrganizerId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'organizer'", Long.class);
+        long roleAdminId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'admin'", Long.class);
+        long firstId = allocateIds("users", count);
+
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows users = new CopyRows();
+            CopyRows userRoles = new CopyRows();
+
+            for (int i = from; i < to; i++) {
+                long id = firstId + i;
+                users.add(id)
+                        .add(faker.internet().username() + "_" + i)
+                        .add("user" + i + "_" + faker.internet().emailAddress())
+                        .add("$2a$10$" + faker.internet().password(40, 60, true, true))
+                        .add(faker.name().firstName())
+                        .add(faker.name().lastName())
+                        .endRow();
+
+                // Первые пользователи - администраторы, следующие - владельцы организаторов
+                if (i < ADMIN_COUNT) {
+                    userRoles.add(id).add(roleAdminId).endRow();
+                } else if (i < ADMIN_COUNT + organizerCount) {
+                    userRoles.add(id).add(roleOrganizerId).endRow();
+                }
+                userRoles.add(id).add(roleUserId).endRow();
             }
 
-            batchArgs.add(new Object[]{userId, roleUserId});
-        }
+            copy(connection -> {
+                users.copyTo(connection, "users", "id, username, email, password_hash, first_name, last_name");
+                userRoles.copyTo(connection, "user_roles", "user_id, role_id");
+            });
+        });
 
-        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?) ON CONFLICT DO NOTHING", batchArgs);
+        return firstId;
     }
 
-    private List<Long> generateOrganizers(int count, List<Long> userIds) {
+    private long generateOrganizers(int count, long firstUserId) {
         log.info("Generating {} organizers...", count);
-        List<Long> organizerIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO organizers (name, description, contact_email, contact_phone, user_id)
-            VALUES (?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String name = faker.company().name();
-            String description = faker.lorem().paragraph(3);
-            String email = "organizer" + i + "_" + faker.internet().emailAddress();
-            String phone = faker.phoneNumber().cellPhone();
-            Long userId = i < userIds.size() ? userIds.get(i + 5) : null;
+        long firstId = allocateIds("organizers", count);
+
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows organizers = new CopyRows();
+
+            for (int i = from; i < to; i++) {
+                organizers.add(firstId + i)
+                        .add(faker.company().name())
+                        .add(faker.lorem().paragraph(3))
+                        .add("organizer" + i + "_" + faker.internet().emailAddress())
+                        .add(faker.phoneNumber().cellPhone())
+                        .add(firstUserId + ADMIN_COUNT + i)
+                        .endRow();
+            }
 
-            Long id = jdbcTemplate.queryForObject(sql, Long.class, name, description, email, phone, userId);
-            organizerIds.add(id);
-        }
+            copy(connection -> organizers.copyTo(connection, "organizers",
+                    "id, name, description, contact_email, contact_phone, user_id"));
+        });
 
-        return organizerIds;
+        return firstId;
     }
 
-    private List<Long> generateVenues(int count) {
+    private long generateVenues(int count) {
         log.info("Generating {} venues...", count);
-        List<Long> venueIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO venues (name, address, capacity)
-            VALUES (?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String name = faker.company().name() + " " + faker.options().option("Арена", "Холл", "Зал", "Театр", "Стадион", "Клуб");
-            String address = faker.address().fullAddress();
-            int capacity = faker.number().numberBetween(100, 50000);
-
-            Long id = jdbcTemplate.queryForObject(sql, Long.class, name, address, capacity);
-            venueIds.add(id);
-        }
-
-        return venueIds;
-    }
-
-    private List<Long> generateEvents(int count, List<Long> organizerIds, List<Long> venueIds) {
-        log.info("Generating {} events...", count);
-        List<Long> eventIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO events (title, description, start_datetime, end_datetime, venue_id, organizer_id, event_status)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String title = faker.music().genre() + " " + faker.options().option("Концерт", "Фестиваль", "Шоу", "Вечер", "Ночь");
-            String description = faker.lorem().paragraph(5);
-
-            LocalDateTime startDatetime = LocalDateTime.ofInstant(
-                    faker.date().future(365, TimeUnit.DAYS).toInstant(),
-                    ZoneId.systemDefault()
-            );
-            LocalDateTime endDatetime = startDatetime.plusHours(faker.number().numberBetween(2, 8));
-
-            Long venueId = venueIds.get(faker.random().nextInt(venueIds.size()));
-            Long organizerId = organizerIds.get(faker.random().nextInt(organizerIds.size()));
-            String status = faker.options().option("draft", "published", "cancelled", "completed");
-
-            Long id = jdbcTemplate.queryForObject(sql, Long.class,
-                    title, description, startDatetime, endDatetime, venueId, organizerId, status);
-            eventIds.add(id);
-
-            if ((i + 1) % 200 == 0) {
-                log.info("Generated {} events", i + 1);
+        long firstId = allocateIds("venues", count);
+
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows venues = new CopyRows();
+
+            for (int i = from; i < to; i++) {
+                venues.add(firstId + i)
+                        .add(faker.company().name() + " " + faker.options().option("Арена", "Холл", "Зал", "Театр", "Стадион", "Клуб"))
+                        .add(faker.address().fullAddress())
+                        .add(faker.number().numberBetween(100, 50000))
+                        .endRow();
             }
-        }
 
-        return eventIds;
+            copy(connection -> venues.copyTo(connection, "venues", "id, name, address, capacity"));
+        });
+
+        return firstId;
     }
 
     private List<Long> generateEventTags(int count) {
@@ -226,244 +213,277 @@ public class TestDataGenerator implements CommandLineRunner {
         return tagIds;
     }
 
-    private void generateEventTagAssignments(List<Long> eventIds, List<Long> eventTagIds) {
-        log.info("Generating event-tag relationships...");
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for (Long eventId : eventIds) {
-            int tagsCount = faker.number().numberBetween(1, 4);
-            Set<Long> selectedTags = new HashSet<>();
-
-            for (int i = 0; i < tagsCount; i++) {
-                Long tagId = eventTagIds.get(faker.random().nextInt(eventTagIds.size()));
-                if (selectedTags.add(tagId)) {
-                    batchArgs.add(new Object[]{eventId, tagId});
-                }
-            }
-        }
-
-        jdbcTemplate.batchUpdate(
-                "INSERT INTO event_tag_assignments (event_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
-                batchArgs
-        );
-    }
-
-    private Map<Long, List<Long>> generateTicketCategories(List<Long> eventIds) {
-        log.info("Generating ticket categories...");
-        Map<Long, List<Long>> eventTicketCategories = new HashMap<>();
-
-        String sql = """
-            INSERT INTO ticket_categories (event_id, name, description, price, quantity_available, sale_start_date, sale_end_date)
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (Long eventId : eventIds) {
-            List<Long> categoryIds = new ArrayList<>();
-            int categoriesCount = faker.number().numberBetween(2, 5);
-
-            String[] categoryNames = {"VIP", "Фан-зона", "Партер", "Балкон", "Стандарт"};
+    // Вместе с мероприятиями пишутся их категории билетов и теги; возвращает id категорий по номеру мероприятия
+    private long[][] generateEvents(int count, long firstId, long firstOrganizerId, int organizerCount,
+                                    long firstVenueId, int venueCount, List<Long> eventTagIds) {
+        log.info("Generating {} events with ticket categories...", count);
+        long[][] eventCategoryIds = new long[count][];
 
-            for (int i = 0; i < categoriesCount; i++) {
-                String name = categoryNames[i % categoryNames.length];
-                String description = faker.lorem().sentence();
-                BigDecimal price = BigDecimal.valueOf(faker.number().numberBetween(500, 50000));
-                int quantity = faker.number().numberBetween(50, 5000);
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows events = new CopyRows();
+            CopyRows tagAssignments = new CopyRows();
+            CopyRows categories = new CopyRows();
 
-                LocalDateTime saleStart = LocalDateTime.now().minusDays(faker.number().numberBetween(1, 60));
-                LocalDateTime saleEnd = saleStart.plusDays(faker.number().numberBetween(30, 180));
-
-                Long id = jdbcTemplate.queryForObject(sql, Long.class,
-                        eventId, name, description, price, quantity, saleStart, saleEnd);
-                categoryIds.add(id);
+            for (int i = from; i < to; i++) {
+                eventCategoryIds[i] = new long[faker.number().numberBetween(2, 5)];
             }
+            int categoryCount = Arrays.stream(eventCategoryIds, from, to).mapToInt(ids -> ids.length).sum();
+
+            copy(connection -> {
+                long categoryId = allocateIds(connection, "ticket_categories", categoryCount);
+
+                for (int i = from; i < to; i++) {
+                    long eventId = firstId + i;
+                    LocalDateTime startDatetime = LocalDateTime.ofInstant(
+                            faker.date().future(365, TimeUnit.DAYS).toInstant(),
+                            ZoneId.systemDefault()
+                    );
+                    events.add(eventId)
+                            .add(faker.music().genre() + " " + faker.options().option("Концерт", "Фестиваль", "Шоу", "Вечер", "Ночь"))
+                            .add(faker.lorem().paragraph(5))
+                            .add(startDatetime)
+                            .add(startDatetime.plusHours(faker.number().numberBetween(2, 8)))
+                            .add(firstVenueId + faker.random().nextInt(venueCount))
+                            .add(firstOrganizerId + faker.random().nextInt(organizerCount))
+                            .add(faker.options().option("draft", "published", "cancelled", "completed"))
+                            .endRow();
+
+                    int tagsCount = faker.number().numberBetween(1, 4);
+                    Set<Long> selectedTags = new HashSet<>();
+                    for (int t = 0; t < tagsCount; t++) {
+                        Long tagId = eventTagIds.get(faker.random().nextInt(eventTagIds.size()));
+                        if (selectedTags.add(tagId)) {
+                            tagAssignments.add(eventId).add(tagId).endRow();
+                        }
+                    }
+
+                    for (int c = 0; c < eventCategoryIds[i].length; c++) {
+                        LocalDateTime saleStart = LocalDateTime.now().minusDays(faker.number().numberBetween(1, 60));
+                        eventCategoryIds[i][c] = categoryId;
+                        categories.add(categoryId++)
+                                .add(eventId)
+                                .add(CATEGORY_NAMES[c % CATEGORY_NAMES.length])
+                                .add(faker.lorem().sentence())
+                                .add(BigDecimal.valueOf(faker.number().numberBetween(500, 50000)))
+                                .add(faker.number().numberBetween(50, 5000))
+                                .add(saleStart)
+                                .add(saleStart.plusDays(faker.number().numberBetween(30, 180)))
+                                .endRow();
+                    }
+                }
 
-            eventTicketCategories.put(eventId, categoryIds);
-        }
+                events.copyTo(connection, "events",
+                        "id, title, description, start_datetime, end_datetime, venue_id, organizer_id, event_status");
+                tagAssignments.copyTo(connection, "event_tag_assignments", "event_id, tag_id");
+                categories.copyTo(connection, "ticket_categories",
+                        "id, event_id, name, description, price, quantity_available, sale_start_date, sale_end_date");
+            });
+        });
 
-        return eventTicketCategories;
+        return eventCategoryIds;
     }
 
-    private List<Long> generatePromoCodes(int count, List<Long> eventIds) {
+    private long generatePromoCodes(int count, long firstEventId, int eventCount) {
         log.info("Generating {} promo codes...", count);
-        List<Long> promoCodeIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO promo_codes (code, discount_type, discount_value, event_id, valid_from, valid_until, max_uses, used_count)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String code = "PROMO" + String.format("%05d", i);
-            String discountType = faker.options().option("percent", "fixed");
-            BigDecimal discountValue = discountType.equals("percent")
-                    ? BigDecimal.valueOf(faker.number().numberBetween(5, 50))
-                    : BigDecimal.valueOf(faker.number().numberBetween(100, 5000));
-
-            Long eventId = faker.bool().bool() ? eventIds.get(faker.random().nextInt(eventIds.size())) : null;
-
-            LocalDateTime validFrom = LocalDateTime.now().minusDays(faker.number().numberBetween(0, 30));
-            LocalDateTime validUntil = validFrom.plusDays(faker.number().numberBetween(30, 180));
-            int maxUses = faker.number().numberBetween(10, 1000);
-            int usedCount = faker.number().numberBetween(0, maxUses / 2);
-
-            Long id = jdbcTemplate.queryForObject(sql, Long.class,
-                    code, discountType, discountValue, eventId, validFrom, validUntil, maxUses, usedCount);
-            promoCodeIds.add(id);
-        }
-
-        return promoCodeIds;
-    }
-
-    private List<Long> generateOrders(int count, List<Long> userIds) {
-        log.info("Generating {} orders...", count);
-        List<Long> orderIds = new ArrayList<>();
-
-        String sql = """
-            INSERT INTO orders (order_number, user_id, total_amount, status, created_at)
-            VALUES (?, ?, ?, ?, ?)
-            RETURNING id
-            """;
-
-        for (int i = 0; i < count; i++) {
-            String orderNumber = "ORD-" + String.format("%010d", i);
-            Long userId = userIds.get(faker.random().nextInt(userIds.size()));
-            BigDecimal totalAmount = BigDecimal.valueOf(faker.number().numberBetween(500, 100000));
-            String status = faker.options().option("pending", "confirmed", "cancelled", "expired");
-            LocalDateTime createdAt = LocalDateTime.ofInstant(
-                    faker.date().past(365, TimeUnit.DAYS).toInstant(),
-                    ZoneId.systemDefault()
-            );
-
-            Long id = jdbcTemplate.queryForObject(sql, Long.class,
-                    orderNumber, userId, totalAmount, status, createdAt);
-            orderIds.add(id);
-
-            if ((i + 1) % 5000 == 0) {
-                log.info("Generated {} orders", i + 1);
+        long firstId = allocateIds("promo_codes", count);
+
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows promoCodes = new CopyRows();
+
+            for (int i = from; i < to; i++) {
+                String discountType = faker.options().option("percent", "fixed");
+                BigDecimal discountValue = discountType.equals("percent")
+                        ? BigDecimal.valueOf(faker.number().numberBetween(5, 50))
+                        : BigDecimal.valueOf(faker.number().numberBetween(100, 5000));
+                Long eventId = faker.bool().bool() ? firstEventId + faker.random().nextInt(eventCount) : null;
+                LocalDateTime validFrom = LocalDateTime.now().minusDays(faker.number().numberBetween(0, 30));
+
+                promoCodes.add(firstId + i)
+                        .add("PROMO" + String.format("%05d", i))
+                        .add(discountType)
+                        .add(discountValue)
+                        .add(eventId)
+                        .add(validFrom)
+                        .add(validFrom.plusDays(faker.number().numberBetween(30, 180)))
+                        .add(faker.number().numberBetween(10, 1000))
+                        .endRow();
             }
-        }
 
-        return orderIds;
+            copy(connection -> promoCodes.copyTo(connection, "promo_codes",
+                    "id, code, discount_type, discount_value, event_id, valid_from, valid_until, max_uses"));
+        });
+
+        // Слоты создает триггер на каждую строку COPY; использования кладем в нулевой слот и перераспределяем остаток лимита
+        long lastId = firstId + count - 1;
+        jdbcTemplate.update("""
+            UPDATE promo_code_usage_slots s
+            SET used_count = floor(random() * (p.max_uses / 2))::int
+            FROM promo_codes p
+            WHERE s.promo_code_id = p.id AND s.slot = 0 AND p.id BETWEEN ? AND ?
+            """, firstId, lastId);
+        jdbcTemplate.query("SELECT rebalance_promo_code_usage_slots(id) FROM promo_codes WHERE id BETWEEN ? AND ?",
+                (RowCallbackHandler) rs -> {}, firstId, lastId);
+
+        return firstId;
     }
 
-    private void generateOrderItems(List<Long> orderIds, Map<Long, List<Long>> eventTicketCategories, List<Long> promoCodeIds) {
-        log.info("Generating order items...");
-
-        String sql = """
-            INSERT INTO order_items (order_id, ticket_category_id, quantity, unit_price, promo_code_id)
-            VALUES (?, ?, ?, ?, ?)
-            """;
-
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for (Long orderId : orderIds) {
-            int itemsCount = faker.number().numberBetween(1, 3);
-
-            List<Long> eventIds = new ArrayList<>(eventTicketCategories.keySet());
-            Long eventId = eventIds.get(faker.random().nextInt(eventIds.size()));
-            List<Long> categoryIds = eventTicketCategories.get(eventId);
-
-            for (int i = 0; i < itemsCount && i < categoryIds.size(); i++) {
-                Long categoryId = categoryIds.get(i);
-                int quantity = faker.number().numberBetween(1, 5);
-                BigDecimal unitPrice = BigDecimal.valueOf(faker.number().numberBetween(500, 50000));
-                Long promoCodeId = faker.bool().bool() && !promoCodeIds.isEmpty()
-                        ? promoCodeIds.get(faker.random().nextInt(promoCodeIds.size()))
-                        : null;
+    // Заказ пишется вместе с позициями, платежом и билетами - одной порцией в одной транзакции
+    private void generateOrders(int count, long firstUserId, int userCount, long[][] eventCategoryIds,
+                                long firstPromoCodeId, int promoCodeCount) {
+        log.info("Generating {} orders with items, payments and tickets...", count);
+        long firstId = allocateIds("orders", count);
+
+        inChunks(count, (from, to) -> {
+            Faker faker = fakers.get();
+            CopyRows orders = new CopyRows();
+            CopyRows orderItems = new CopyRows();
+            CopyRows payments = new CopyRows();
+            CopyRows tickets = new CopyRows();
+            List<long[]> items = new ArrayList<>();
+
+            for (int i = from; i < to; i++) {
+                long orderId = firstId + i;
+                String status = faker.options().option("pending", "confirmed", "cancelled", "expired");
+                LocalDateTime createdAt = LocalDateTime.ofInstant(
+                        faker.date().past(365, TimeUnit.DAYS).toInstant(),
+                        ZoneId.systemDefault()
+                );
+                orders.add(orderId)
+                        .add("ORD-" + String.format("%010d", i))
+                        .add(firstUserId + faker.random().nextInt(userCount))
+                        .add(BigDecimal.valueOf(faker.number().numberBetween(500, 100000)))
+                        .add(status)
+                        .add(createdAt)
+                        .endRow();
+
+                int itemsCount = faker.number().numberBetween(1, 3);
+                long[] categoryIds = eventCategoryIds[faker.random().nextInt(eventCategoryIds.length)];
+                for (int j = 0; j < itemsCount && j < categoryIds.length; j++) {
+                    items.add(new long[]{orderId, categoryIds[j], faker.number().numberBetween(1, 5),
+                            status.equals("confirmed") ? 1 : 0});
+                }
 
-                batchArgs.add(new Object[]{orderId, categoryId, quantity, unitPrice, promoCodeId});
+                String paymentStatus = faker.options().option("pending", "succeeded", "failed");
+                boolean succeeded = paymentStatus.equals("succeeded");
+                payments.add(orderId)
+                        .add(BigDecimal.valueOf(faker.number().numberBetween(500, 100000)))
+                        .add(paymentStatus)
+                        .add(succeeded ? "PAY-" + faker.number().digits(15) : null)
+                        .add(succeeded
+                                ? LocalDateTime.ofInstant(faker.date().past(365, TimeUnit.DAYS).toInstant(), ZoneId.systemDefault())
+                                : null)
+                        .endRow();
             }
 
-            if (batchArgs.size() >= 5000) {
-                jdbcTemplate.batchUpdate(sql, batchArgs);
-                batchArgs.clear();
-                log.info("Generated order items batch");
-            }
-        }
+            copy(connection -> {
+                long orderItemId = allocateIds(connection, "order_items", items.size());
+                for (long[] item : items) {
+                    int quantity = (int) item[2];
+                    Long promoCodeId = faker.bool().bool()
+                            ? firstPromoCodeId + faker.random().nextInt(promoCodeCount)
+                            : null;
+                    orderItems.add(orderItemId)
+                            .add(item[0])
+                            .add(item[1])
+                            .add(quantity)
+                            .add(BigDecimal.valueOf(faker.number().numberBetween(500, 50000)))
+                            .add(promoCodeId)
+                            .endRow();
+
+                    // Билеты есть только у подтвержденных заказов
+                    if (item[3] == 1) {
+                        for (int q = 0; q < quantity; q++) {
+                            long ticketNumber = ticketCounter.getAndIncrement();
+                            tickets.add("TKT-" + String.format("%012d", ticketNumber))
+                                    .add(orderItemId)
+                                    .add(faker.name().fullName())
+                                    .add("ticket" + (ticketNumber + 1) + "_" + faker.internet().emailAddress())
+                                    .add(faker.options().option("active", "checked_in", "cancelled"))
+                                    .endRow();
+                        }
+                    }
+                    orderItemId++;
+                }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(sql, batchArgs);
-        }
+                orders.copyTo(connection, "orders", "id, order_number, user_id, total_amount, status, created_at");
+                orderItems.copyTo(connection, "order_items",
+                        "id, order_id, ticket_category_id, quantity, unit_price, promo_code_id");
+                payments.copyTo(connection, "payments", "order_id, amount, status, external_payment_id, paid_at");
+                tickets.copyTo(connection, "tickets", "ticket_code, order_item_id, attendee_name, attendee_email, status");
+            });
+        });
     }
 
-    private void generatePayments(List<Long> orderIds) {
-        log.info("Generating payments...");
+    private long allocateIds(String table, int count) {
+        return jdbcTemplate.execute((Connection connection) -> allocateIds(connection, table, count));
+    }
 
+    // Сдвигает последовательность на count и возвращает первый id диапазона. nextval и setval - два вызова,
+    // поэтому выдача сериализована; генератор работает только на пустой базе, где чужих вставок нет
+    private synchronized long allocateIds(Connection connection, String table, int count) throws SQLException {
+        if (count == 0) {
+            return 0;
+        }
         String sql = """
-            INSERT INTO payments (order_id, amount, status, external_payment_id, paid_at)
-            VALUES (?, ?, ?, ?, ?)
+            SELECT setval(pg_get_serial_sequence(?, 'id'), nextval(pg_get_serial_sequence(?, 'id')) + ? - 1) - ? + 1
             """;
-
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for (Long orderId : orderIds) {
-            BigDecimal amount = BigDecimal.valueOf(faker.number().numberBetween(500, 100000));
-            String status = faker.options().option("pending", "succeeded", "failed");
-            String externalPaymentId = status.equals("succeeded") ? "PAY-" + faker.number().digits(15) : null;
-            LocalDateTime paidAt = status.equals("succeeded")
-                    ? LocalDateTime.ofInstant(faker.date().past(365, TimeUnit.DAYS).toInstant(), ZoneId.systemDefault())
-                    : null;
-
-            batchArgs.add(new Object[]{orderId, amount, status, externalPaymentId, paidAt});
-
-            if (batchArgs.size() >= 5000) {
-                jdbcTemplate.batchUpdate(sql, batchArgs);
-                batchArgs.clear();
-                log.info("Generated payments batch");
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, table);
+            ps.setInt(3, count);
+            ps.setInt(4, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
             }
         }
+    }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(sql, batchArgs);
+    private void copy(CopyAction action) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                action.run(connection);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
-    private void generateTickets() {
-        log.info("Generating tickets...");
-
-        String selectSql = """
-            SELECT oi.id, oi.quantity
-            FROM order_items oi
-            JOIN orders o ON o.id = oi.order_id
-            WHERE o.status = 'confirmed'
-            """;
-
-        String insertSql = """
-            INSERT INTO tickets (ticket_code, order_item_id, attendee_name, attendee_email, status)
-            VALUES (?, ?, ?, ?, ?)
-            """;
-
-        List<Map<String, Object>> orderItems = jdbcTemplate.queryForList(selectSql);
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        int ticketCounter = 0;
-        for (Map<String, Object> item : orderItems) {
-            Long orderItemId = ((Number) item.get("id")).longValue();
-            int quantity = ((Number) item.get("quantity")).intValue();
-
-            for (int i = 0; i < quantity; i++) {
-                String ticketCode = "TKT-" + String.format("%012d", ticketCounter++);
-                String attendeeName = faker.name().fullName();
-                String attendeeEmail = "ticket" + ticketCounter + "_" + faker.internet().emailAddress();
-                String status = faker.options().option("active", "checked_in", "cancelled");
-
-                batchArgs.add(new Object[]{ticketCode, orderItemId, attendeeName, attendeeEmail, status});
+    private void inChunks(int count, ChunkAction action) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < count; from += CHUNK_SIZE) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + CHUNK_SIZE);
+            tasks.add(() -> {
+                action.run(chunkFrom, chunkTo);
+                return null;
+            });
+        }
 
-                if (batchArgs.size() >= 5000) {
-                    jdbcTemplate.batchUpdate(insertSql, batchArgs);
-                    batchArgs.clear();
-                    log.info("Generated {} tickets", ticketCounter);
-                }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Test data generation failed", e.getCause());
         }
+    }
 
-        if (!batchArgs.isEmpty()) {
-            jdbcTemplate.batchUpdate(insertSql, batchArgs);
-        }
+    @FunctionalInterface
+    private interface ChunkAction {
+        void run(int from, int to) throws Exception;
+    }
 
-        Integer ticketCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets", Integer.class);
-        log.info("Total tickets generated: {}", ticketCount);
+    @FunctionalInterface
+    private interface CopyAction {
+        void run(Connection connection) throws Exception;
     }
 }
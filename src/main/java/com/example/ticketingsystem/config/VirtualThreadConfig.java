@@ -0,0 +1,60 @@
+package com.example.ticketingsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Включается через spring.threads.virtual.enabled=true: Tomcat, @Async и @Scheduled
+// переходят на виртуальные потоки, а доступ к пулу соединений ограничивается семафором
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int defaultPermits = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int permits = environment.getProperty("app.datasource.connection-permits", Integer.class, defaultPermits);
+                long acquireTimeoutMs = environment.getProperty("app.datasource.permit-timeout-ms", Long.class, 30000L);
+                return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limited) {
+                bindPermitGauges(registry, limited);
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment) {
+        return new VirtualThreadPinningMonitor(meterRegistry,
+                environment.getProperty("app.virtual-threads.pinning-threshold-ms", Long.class, 20L),
+                environment.getProperty("app.virtual-threads.pinning-detection.enabled", Boolean.class, true));
+    }
+
+    private static void bindPermitGauges(MeterRegistry registry, ConnectionLimitingDataSource dataSource) {
+        Gauge.builder("jdbc.connection.permits.available", dataSource, ConnectionLimitingDataSource::getAvailablePermits)
+                .register(registry);
+        Gauge.builder("jdbc.connection.permits.waiting", dataSource, ConnectionLimitingDataSource::getQueueLength)
+                .register(registry);
+    }
+}
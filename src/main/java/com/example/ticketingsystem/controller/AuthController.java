@@ -8,31 +8,36 @@ import com.example.ticketingsystem.exception.UnauthorizedException;
 import com.example.ticketingsystem.model.User;
 import com.example.ticketingsystem.repository.UserDAO;
 import com.example.ticketingsystem.security.JwtUtil;
+import com.example.ticketingsystem.security.PasswordHashingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Аутентификация", description = "Регистрация и вход пользователей")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserDAO userDAO;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
 
-    public AuthController(UserDAO userDAO, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthController(UserDAO userDAO, PasswordHashingService passwordHashingService, JwtUtil jwtUtil) {
         this.userDAO = userDAO;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
     }
 
@@ -41,7 +46,8 @@ public class AuthController {
             description = "Создает нового пользователя с ролью USER и возвращает JWT токен")
     @ApiResponse(responseCode = "200", description = "Пользователь успешно зарегистрирован")
     @ApiResponse(responseCode = "409", description = "Имя пользователя или email уже существует")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    @ApiResponse(responseCode = "429", description = "Слишком много одновременных запросов аутентификации")
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
         if (userDAO.findByUsername(request.getUsername()).isPresent()) {
             throw new DuplicateResourceException("Username", request.getUsername());
         }
@@ -50,20 +56,22 @@ public class AuthController {
             throw new DuplicateResourceException("Email", request.getEmail());
         }
 
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
+        return passwordHashingService.encode(request.getPassword()).thenApply(passwordHash -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPasswordHash(passwordHash);
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
 
-        User savedUser = userDAO.create(user);
-        userDAO.assignRole(savedUser.getId(), "user");
+            User savedUser = userDAO.create(user);
+            userDAO.assignRole(savedUser.getId(), "user");
 
-        List<String> roles = List.of("ROLE_USER");
-        String token = jwtUtil.generateToken(savedUser.getUsername(), roles);
+            List<String> roles = List.of("ROLE_USER");
+            String token = jwtUtil.generateToken(savedUser.getUsername(), roles);
 
-        return ResponseEntity.ok(new AuthResponse(token, savedUser.getUsername(), savedUser.getEmail(), roles));
+            return ResponseEntity.ok(new AuthResponse(token, savedUser.getId(), savedUser.getUsername(), savedUser.getEmail(), roles));
+        });
     }
 
     @PostMapping("/login")
@@ -71,21 +79,42 @@ public class AuthController {
             description = "Аутентифицирует пользователя и возвращает JWT токен для доступа к защищенным эндпоинтам")
     @ApiResponse(responseCode = "200", description = "Успешный вход")
     @ApiResponse(responseCode = "401", description = "Неверные учетные данные")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    @ApiResponse(responseCode = "429", description = "Слишком много одновременных запросов аутентификации")
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
         User user = userDAO.findByUsername(request.getUsername())
                 .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new UnauthorizedException("Invalid credentials");
-        }
+        return passwordHashingService.matches(request.getPassword(), user.getPasswordHash()).thenApply(matched -> {
+            if (!matched) {
+                throw new UnauthorizedException("Invalid credentials");
+            }
+            rehashIfNeeded(user, request.getPassword());
+
+            List<String> roleNames = userDAO.getUserRoleNames(user.getId());
+            List<String> roles = roleNames.stream()
+                    .map(role -> "ROLE_" + role.toUpperCase())
+                    .toList();
 
-        List<String> roleNames = userDAO.getUserRoleNames(user.getId());
-        List<String> roles = roleNames.stream()
-                .map(role -> "ROLE_" + role.toUpperCase())
-                .toList();
+            String token = jwtUtil.generateToken(user.getUsername(), roles);
 
-        String token = jwtUtil.generateToken(user.getUsername(), roles);
+            return ResponseEntity.ok(new AuthResponse(token, user.getId(), user.getUsername(), user.getEmail(), roles));
+        });
+    }
 
-        return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getEmail(), roles));
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        // Пересчет хеша под новую стоимость не должен задерживать или ломать вход
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAccept(newHash -> userDAO.updatePasswordHash(user.getId(), user.getPasswordHash(), newHash))
+                    .exceptionally(e -> {
+                        log.warn("Failed to rehash password for user {}", user.getId(), e);
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            log.debug("Skipping password rehash for user {}: {}", user.getId(), e.getMessage());
+        }
     }
 }
@@ -0,0 +1,81 @@
+package com.example.ticketingsystem.controller;
+
+import com.example.ticketingsystem.dto.request.CheckInRequest;
+import com.example.ticketingsystem.dto.response.CheckInResponse;
+import com.example.ticketingsystem.service.CheckInService;
+import com.example.ticketingsystem.service.GateManifest;
+import com.example.ticketingsystem.service.GateManifestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/check-in")
+@AllArgsConstructor
+@Tag(name = "Проход на мероприятие", description = "Сканирование билетов на входе (требуется роль ORGANIZER или ADMIN)")
+@SecurityRequirement(name = "bearerAuth")
+public class CheckInController {
+
+    private final CheckInService checkInService;
+    private final GateManifestService gateManifestService;
+
+    @PutMapping("/{eventId}/index")
+    @Operation(summary = "Загрузить коды билетов",
+               description = "Загружает коды билетов мероприятия в память узла перед открытием входа. "
+                       + "Повторный вызов перечитывает коды из базы")
+    @ApiResponse(responseCode = "200", description = "Индекс загружен")
+    @ApiResponse(responseCode = "404", description = "Мероприятие не найдено")
+    public ResponseEntity<Map<String, Integer>> load(@Parameter(description = "ID мероприятия") @PathVariable Long eventId) {
+        return ResponseEntity.ok(Map.of("tickets", checkInService.load(eventId)));
+    }
+
+    @DeleteMapping("/{eventId}/index")
+    @Operation(summary = "Выгрузить коды билетов", description = "Освобождает память после закрытия входа")
+    @ApiResponse(responseCode = "204", description = "Индекс выгружен")
+    @ApiResponse(responseCode = "404", description = "Индекс не загружен")
+    public ResponseEntity<Void> unload(@Parameter(description = "ID мероприятия") @PathVariable Long eventId) {
+        checkInService.unload(eventId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{eventId}/scan")
+    @Operation(summary = "Отсканировать билет",
+               description = "Пропускает билет один раз: повторный скан возвращает ALREADY_CHECKED_IN")
+    @ApiResponse(responseCode = "200", description = "Результат проверки билета")
+    public ResponseEntity<CheckInResponse> scan(@Parameter(description = "ID мероприятия") @PathVariable Long eventId,
+                                                @Valid @RequestBody CheckInRequest request) {
+        return ResponseEntity.ok(checkInService.scan(eventId, request.getTicketCode()));
+    }
+
+    @GetMapping("/{eventId}/manifest")
+    @Operation(summary = "Манифест билетов для работы без связи",
+               description = "Бинарный манифест действующих билетов мероприятия: фильтр Блума и отсортированная таблица "
+                       + "отпечатков кодов. С параметром since возвращает дельту - билеты, выпущенные или отмененные "
+                       + "после манифеста этой версии. Версия манифеста - в заголовке X-Manifest-Version")
+    @ApiResponse(responseCode = "200", description = "Манифест")
+    @ApiResponse(responseCode = "400", description = "Некорректная версия")
+    @ApiResponse(responseCode = "404", description = "Мероприятие не найдено")
+    public ResponseEntity<StreamingResponseBody> manifest(
+            @Parameter(description = "ID мероприятия") @PathVariable Long eventId,
+            @Parameter(description = "Версия предыдущего манифеста для получения дельты") @RequestParam(required = false) Long since) {
+        GateManifest manifest = gateManifestService.build(eventId, since);
+        String fileName = "event-" + eventId + "-" + manifest.getVersion() + (manifest.isDelta() ? ".delta" : ".manifest");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(manifest.getSizeBytes())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header("X-Manifest-Version", String.valueOf(manifest.getVersion()))
+                .body(manifest::writeTo);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ticketingsystem.controller;
+
+import com.example.ticketingsystem.repository.CursorPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+// Страница уходит телом ответа, курсор следующей - заголовком
+final class CursorPageResponse {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPageResponse() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.nextCursor().ifPresent(cursor -> response.header(NEXT_CURSOR_HEADER, cursor));
+        return response.body(page.items());
+    }
+}
@@ -5,6 +5,8 @@ import com.example.ticketingsystem.dto.request.EventRequest;
 import com.example.ticketingsystem.dto.request.StatusUpdateRequest;
 import com.example.ticketingsystem.dto.response.EventResponse;
 import com.example.ticketingsystem.model.Event;
+import com.example.ticketingsystem.model.EventCancellation;
+import com.example.ticketingsystem.repository.PageCursor;
 import com.example.ticketingsystem.service.EventService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,9 +35,11 @@ public class EventController {
     }
 
     @GetMapping
-    @Operation(summary = "Получить все мероприятия", description = "Возвращает список всех мероприятий (публичный доступ). Поддерживает пагинацию.")
-    public List<EventResponse> getAllEvents(
-            @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Получить все мероприятия",
+            description = "Возвращает список всех мероприятий (публичный доступ). Поддерживает курсорную пагинацию: "
+                    + "курсор следующей страницы передается в заголовке X-Next-Cursor.")
+    public ResponseEntity<List<EventResponse>> getAllEvents(
+            @Parameter(description = "Курсор страницы из заголовка X-Next-Cursor предыдущего ответа") @RequestParam(required = false) String cursor,
             @Parameter(description = "Размер страницы (максимум 100)") @RequestParam(defaultValue = "20") int size) {
 
         if (size > 100) {
@@ -44,13 +48,9 @@ public class EventController {
         if (size < 1) {
             size = 20;
         }
-        if (page < 0) {
-            page = 0;
-        }
 
-        return eventService.getAllEvents(page, size).stream()
-                .map(EventResponse::new)
-                .collect(Collectors.toList());
+        return CursorPageResponse.of(eventService.getAllEvents(PageCursor.decode(cursor), size)
+                .map(EventResponse::new));
     }
 
     @GetMapping("/{id}")
@@ -117,6 +117,18 @@ public class EventController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{id}/cancellation")
+    @Operation(summary = "Прогресс отмены мероприятия",
+               description = "Показывает, сколько ожидающих оплаты заказов уже отменено (требуется роль ORGANIZER или ADMIN)")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponse(responseCode = "200", description = "Состояние отмены")
+    @ApiResponse(responseCode = "404", description = "Отмена мероприятия не запускалась")
+    public ResponseEntity<EventCancellation> getCancellationProgress(@Parameter(description = "ID мероприятия") @PathVariable Long id) {
+        return eventService.getCancellationProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/published")
     @Operation(summary = "Получить опубликованные мероприятия",
                description = "Возвращает только мероприятия в статусе 'published' (публичный доступ)")
@@ -7,8 +7,13 @@ import com.example.ticketingsystem.dto.response.OrderResponse;
 import com.example.ticketingsystem.dto.response.TicketResponse;
 import com.example.ticketingsystem.model.Order;
 import com.example.ticketingsystem.model.Ticket;
+import com.example.ticketingsystem.repository.CursorPage;
+import com.example.ticketingsystem.repository.PageCursor;
+import com.example.ticketingsystem.service.ExportFormat;
+import com.example.ticketingsystem.service.ExportService;
 import com.example.ticketingsystem.service.OrderService;
 import com.example.ticketingsystem.service.PromoCodeService;
+import com.example.ticketingsystem.service.WaitingRoomService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,11 +21,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -31,14 +41,18 @@ public class OrderController {
 
     private final OrderService orderService;
     private final PromoCodeService promoCodeService;
+    private final ExportService exportService;
+    private final WaitingRoomService waitingRoomService;
 
     @GetMapping
     @Operation(summary = "Получить все заказы",
-               description = "Возвращает список всех заказов, можно фильтровать по статусу. Поддерживает пагинацию.")
+               description = "Возвращает список всех заказов, можно фильтровать по статусу. Поддерживает курсорную пагинацию: "
+                       + "курсор следующей страницы передается в заголовке X-Next-Cursor.")
     @ApiResponse(responseCode = "200", description = "Список заказов")
+    @ApiResponse(responseCode = "400", description = "Некорректный курсор")
     public ResponseEntity<List<OrderResponse>> getAllOrders(
             @Parameter(description = "Статус заказа (pending, confirmed, cancelled)") @RequestParam(required = false) String status,
-            @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Курсор страницы из заголовка X-Next-Cursor предыдущего ответа") @RequestParam(required = false) String cursor,
             @Parameter(description = "Размер страницы (максимум 100)") @RequestParam(defaultValue = "20") int size) {
 
         if (size > 100) {
@@ -47,20 +61,31 @@ public class OrderController {
         if (size < 1) {
             size = 20;
         }
-        if (page < 0) {
-            page = 0;
-        }
 
-        List<Order> orders;
+        PageCursor after = PageCursor.decode(cursor);
+        CursorPage<Order> orders;
         if (status != null) {
-            orders = orderService.getOrdersByStatus(status, page, size);
+            orders = orderService.getOrdersByStatus(status, after, size);
         } else {
-            orders = orderService.getAllOrders(page, size);
+            orders = orderService.getAllOrders(after, size);
         }
-        List<OrderResponse> responses = orders.stream()
-                .map(OrderResponse::new)
-                .toList();
-        return ResponseEntity.ok(responses);
+        return CursorPageResponse.of(orders.map(OrderResponse::new));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Выгрузить заказы",
+               description = "Потоково выгружает все заказы в формате NDJSON или CSV без загрузки их в память")
+    @ApiResponse(responseCode = "200", description = "Выгрузка заказов")
+    @ApiResponse(responseCode = "400", description = "Неподдерживаемый формат")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Статус заказа (pending, confirmed, cancelled)") @RequestParam(required = false) String status,
+            @Parameter(description = "Формат выгрузки (ndjson, csv)") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(exportFormat.fileName("orders")).build().toString())
+                .body(out -> exportService.exportOrders(status, exportFormat, out));
     }
 
     @PostMapping
@@ -68,8 +93,12 @@ public class OrderController {
                description = "Создает новый заказ билетов. Автоматически резервирует билеты и создает платеж в статусе pending")
     @ApiResponse(responseCode = "201", description = "Заказ создан")
     @ApiResponse(responseCode = "400", description = "Недостаточно билетов или некорректные данные")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        Order order = orderService.createOrder(request.getUserId(), request.getItems());
+    @ApiResponse(responseCode = "429", description = "Мероприятие за очередью ожидания, нужен токен допуска")
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @Parameter(description = "Токен допуска из очереди ожидания мероприятия") @RequestHeader(value = "X-Admission-Token", required = false) String admissionToken) {
+        Set<Long> admittedEventIds = waitingRoomService.checkAdmission(request.getUserId(), request.getItems(), admissionToken);
+        Order order = orderService.createOrder(request.getUserId(), request.getItems(), admittedEventIds);
         return ResponseEntity.status(HttpStatus.CREATED).body(new OrderResponse(order));
     }
 
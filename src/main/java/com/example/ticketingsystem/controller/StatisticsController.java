@@ -3,14 +3,20 @@ package com.example.ticketingsystem.controller;
 import com.example.ticketingsystem.model.EventSalesView;
 import com.example.ticketingsystem.model.VenueUtilizationView;
 import com.example.ticketingsystem.model.PromoCodeEffectivenessView;
+import com.example.ticketingsystem.service.ExportFormat;
+import com.example.ticketingsystem.service.ExportService;
 import com.example.ticketingsystem.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +28,7 @@ import java.util.List;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final ExportService exportService;
 
     @GetMapping("/event-sales")
     @Operation(summary = "Статистика продаж по мероприятиям",
@@ -34,6 +41,20 @@ public class StatisticsController {
         return ResponseEntity.ok(statisticsService.getEventSales());
     }
 
+    @GetMapping("/event-sales/export")
+    @Operation(summary = "Выгрузка статистики продаж",
+               description = "Потоково выгружает статистику продаж по категориям в формате NDJSON или CSV")
+    public ResponseEntity<StreamingResponseBody> exportEventSales(
+            @Parameter(description = "ID мероприятия (опционально)") @RequestParam(required = false) Long eventId,
+            @Parameter(description = "Формат выгрузки (ndjson, csv)") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(exportFormat.fileName("event-sales")).build().toString())
+                .body(out -> exportService.exportEventSales(eventId, exportFormat, out));
+    }
+
     @GetMapping("/venue-utilization")
     @Operation(summary = "Статистика использования площадок",
                description = "Возвращает данные о загрузке площадок, количестве мероприятий и выручке")
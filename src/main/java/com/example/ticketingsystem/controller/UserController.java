@@ -5,6 +5,7 @@ import com.example.ticketingsystem.dto.request.RoleRequest;
 import com.example.ticketingsystem.dto.request.UserRequest;
 import com.example.ticketingsystem.dto.response.UserResponse;
 import com.example.ticketingsystem.model.User;
+import com.example.ticketingsystem.repository.PageCursor;
 import com.example.ticketingsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,11 +35,11 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей системы. Поддерживает пагинацию.")
+    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей системы. Поддерживает курсорную пагинацию через заголовок X-Next-Cursor.")
     @ApiResponse(responseCode = "200", description = "Список пользователей")
     @ApiResponse(responseCode = "403", description = "Требуется роль ADMIN")
-    public List<User> getAllUsers(
-            @Parameter(description = "Номер страницы (начиная с 0)") @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<List<User>> getAllUsers(
+            @Parameter(description = "Курсор страницы из заголовка X-Next-Cursor предыдущего ответа") @RequestParam(required = false) String cursor,
             @Parameter(description = "Размер страницы (максимум 100)") @RequestParam(defaultValue = "20") int size) {
 
         if (size > 100) {
@@ -47,11 +48,8 @@ public class UserController {
         if (size < 1) {
             size = 20;
         }
-        if (page < 0) {
-            page = 0;
-        }
 
-        return userService.getAllUsers(page, size);
+        return CursorPageResponse.of(userService.getAllUsers(PageCursor.decode(cursor), size));
     }
 
     @GetMapping("/{id}")
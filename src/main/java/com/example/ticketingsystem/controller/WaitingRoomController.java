@@ -0,0 +1,69 @@
+package com.example.ticketingsystem.controller;
+
+import com.example.ticketingsystem.model.WaitingRoom;
+import com.example.ticketingsystem.model.WaitingRoomStatus;
+import com.example.ticketingsystem.service.WaitingRoomService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@AllArgsConstructor
+@Tag(name = "Очередь ожидания", description = "Очередь допуска к покупке билетов на популярные мероприятия")
+@SecurityRequirement(name = "bearerAuth")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    @PutMapping("/{eventId}")
+    @Operation(summary = "Открыть очередь ожидания",
+               description = "Включает очередь для мероприятия: заказы принимаются только с токеном допуска, "
+                       + "допуск выдается с заданной скоростью (требуется роль ORGANIZER или ADMIN)")
+    @ApiResponse(responseCode = "200", description = "Очередь открыта или скорость допуска изменена")
+    @ApiResponse(responseCode = "400", description = "Некорректная скорость допуска")
+    @ApiResponse(responseCode = "404", description = "Мероприятие не найдено")
+    public ResponseEntity<WaitingRoom> open(
+            @Parameter(description = "ID мероприятия") @PathVariable Long eventId,
+            @Parameter(description = "Сколько пользователей допускать в минуту") @RequestParam int admissionsPerMinute) {
+        return ResponseEntity.ok(waitingRoomService.open(eventId, admissionsPerMinute));
+    }
+
+    @DeleteMapping("/{eventId}")
+    @Operation(summary = "Закрыть очередь ожидания",
+               description = "Снимает очередь: заказы на мероприятие снова принимаются без токена (требуется роль ORGANIZER или ADMIN)")
+    @ApiResponse(responseCode = "204", description = "Очередь закрыта")
+    @ApiResponse(responseCode = "404", description = "Очередь не открыта")
+    public ResponseEntity<Void> close(@Parameter(description = "ID мероприятия") @PathVariable Long eventId) {
+        waitingRoomService.close(eventId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{eventId}/join")
+    @Operation(summary = "Встать в очередь",
+               description = "Ставит текущего пользователя в очередь мероприятия. Повторный вызов не меняет место в очереди")
+    @ApiResponse(responseCode = "200", description = "Место в очереди или токен допуска")
+    @ApiResponse(responseCode = "404", description = "Очередь не открыта")
+    public ResponseEntity<WaitingRoomStatus> join(@Parameter(description = "ID мероприятия") @PathVariable Long eventId,
+                                                  Principal principal) {
+        return ResponseEntity.ok(waitingRoomService.join(eventId, principal.getName()));
+    }
+
+    @GetMapping("/{eventId}")
+    @Operation(summary = "Место в очереди",
+               description = "Возвращает позицию в очереди и рекомендуемый интервал опроса; "
+                       + "после допуска - токен для заголовка X-Admission-Token при создании заказа")
+    @ApiResponse(responseCode = "200", description = "Состояние в очереди")
+    @ApiResponse(responseCode = "404", description = "Пользователь не стоит в очереди")
+    public ResponseEntity<WaitingRoomStatus> getStatus(@Parameter(description = "ID мероприятия") @PathVariable Long eventId,
+                                                       Principal principal) {
+        return ResponseEntity.ok(waitingRoomService.getStatus(eventId, principal.getName()));
+    }
+}
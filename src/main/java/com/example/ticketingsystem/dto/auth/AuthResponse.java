@@ -9,6 +9,7 @@ import java.util.List;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private Long userId;
     private String username;
     private String email;
     private List<String> roles;
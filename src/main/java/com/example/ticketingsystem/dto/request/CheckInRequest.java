@@ -0,0 +1,11 @@
+package com.example.ticketingsystem.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class CheckInRequest {
+
+    @NotBlank(message = "Ticket code is required")
+    private String ticketCode;
+}
@@ -0,0 +1,13 @@
+package com.example.ticketingsystem.dto.response;
+
+import com.example.ticketingsystem.service.CheckInOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CheckInResponse {
+    private String ticketCode;
+    private Long ticketId;
+    private CheckInOutcome outcome;
+}
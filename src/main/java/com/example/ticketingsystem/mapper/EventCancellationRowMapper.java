@@ -0,0 +1,24 @@
+package com.example.ticketingsystem.mapper;
+
+import com.example.ticketingsystem.model.EventCancellation;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+public class EventCancellationRowMapper implements RowMapper<EventCancellation> {
+    @Override
+    public EventCancellation mapRow(ResultSet rs, int rowNum) throws SQLException {
+        EventCancellation cancellation = new EventCancellation();
+        cancellation.setEventId(rs.getLong("event_id"));
+        cancellation.setStatus(rs.getString("status"));
+        cancellation.setTotalOrders(rs.getInt("total_orders"));
+        cancellation.setCancelledOrders(rs.getInt("cancelled_orders"));
+        cancellation.setLastOrderId(rs.getLong("last_order_id"));
+        cancellation.setStartedAt(rs.getObject("started_at", LocalDateTime.class));
+        cancellation.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        cancellation.setCompletedAt(rs.getObject("completed_at", LocalDateTime.class));
+        return cancellation;
+    }
+}
@@ -19,6 +19,7 @@ public class EventSalesViewRowMapper implements RowMapper<EventSalesView> {
         view.setAvgTicketPrice(rs.getBigDecimal("avg_ticket_price"));
         view.setTicketsSoldLast7Days(rs.getInt("tickets_sold_last_7_days"));
         view.setSoldPercentage(rs.getInt("sold_percentage"));
+        view.setRevenue(rs.getBigDecimal("revenue"));
         return view;
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.jdbc.core.RowMapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 
 public class PromoCodeEffectivenessViewRowMapper implements RowMapper<PromoCodeEffectivenessView> {
     @Override
@@ -24,6 +25,7 @@ public class PromoCodeEffectivenessViewRowMapper implements RowMapper<PromoCodeE
         view.setAvgDiscountPerOrder(rs.getBigDecimal("avg_discount_per_order"));
         view.setUsagePercentage(rs.getObject("usage_percentage", Integer.class));
         view.setPromoStatus(rs.getString("promo_status"));
+        view.setStaleAsOf(rs.getObject("stale_as_of", LocalDateTime.class));
         return view;
     }
 }
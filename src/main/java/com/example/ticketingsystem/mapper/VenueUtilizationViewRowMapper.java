@@ -5,6 +5,7 @@ import org.springframework.jdbc.core.RowMapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 
 public class VenueUtilizationViewRowMapper implements RowMapper<VenueUtilizationView> {
     @Override
@@ -19,6 +20,7 @@ public class VenueUtilizationViewRowMapper implements RowMapper<VenueUtilization
         view.setTicketsSold(rs.getLong("tickets_sold"));
         view.setTotalRevenue(rs.getBigDecimal("total_revenue"));
         view.setAvgOccupancyPercentage(rs.getObject("avg_occupancy_percentage", Integer.class));
+        view.setStaleAsOf(rs.getObject("stale_as_of", LocalDateTime.class));
         return view;
     }
 }
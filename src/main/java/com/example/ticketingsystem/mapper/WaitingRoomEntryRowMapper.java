@@ -0,0 +1,22 @@
+package com.example.ticketingsystem.mapper;
+
+import com.example.ticketingsystem.model.WaitingRoomEntry;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+public class WaitingRoomEntryRowMapper implements RowMapper<WaitingRoomEntry> {
+    @Override
+    public WaitingRoomEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+        WaitingRoomEntry entry = new WaitingRoomEntry();
+        entry.setId(rs.getLong("id"));
+        entry.setEventId(rs.getLong("event_id"));
+        entry.setUserId(rs.getLong("user_id"));
+        entry.setJoinedAt(rs.getObject("joined_at", LocalDateTime.class));
+        entry.setAdmittedAt(rs.getObject("admitted_at", LocalDateTime.class));
+        entry.setUsedAt(rs.getObject("used_at", LocalDateTime.class));
+        return entry;
+    }
+}
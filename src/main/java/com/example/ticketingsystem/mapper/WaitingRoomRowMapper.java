@@ -0,0 +1,20 @@
+package com.example.ticketingsystem.mapper;
+
+import com.example.ticketingsystem.model.WaitingRoom;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+public class WaitingRoomRowMapper implements RowMapper<WaitingRoom> {
+    @Override
+    public WaitingRoom mapRow(ResultSet rs, int rowNum) throws SQLException {
+        WaitingRoom waitingRoom = new WaitingRoom();
+        waitingRoom.setEventId(rs.getLong("event_id"));
+        waitingRoom.setAdmissionsPerMinute(rs.getInt("admissions_per_minute"));
+        waitingRoom.setLastAdmissionAt(rs.getObject("last_admission_at", LocalDateTime.class));
+        waitingRoom.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        return waitingRoom;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventCancellation {
+    private Long eventId;
+    private String status;
+    private Integer totalOrders;
+    private Integer cancelledOrders;
+    private Long lastOrderId;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
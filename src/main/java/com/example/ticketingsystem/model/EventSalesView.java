@@ -19,4 +19,5 @@ public class EventSalesView {
     private BigDecimal avgTicketPrice;
     private Integer ticketsSoldLast7Days;
     private Integer soldPercentage;
+    private BigDecimal revenue;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @AllArgsConstructor
@@ -24,4 +25,5 @@ public class PromoCodeEffectivenessView {
     private BigDecimal avgDiscountPerOrder;
     private Integer usagePercentage;
     private String promoStatus;
+    private LocalDateTime staleAsOf;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @AllArgsConstructor
@@ -19,4 +20,5 @@ public class VenueUtilizationView {
     private Long ticketsSold;
     private BigDecimal totalRevenue;
     private Integer avgOccupancyPercentage;
+    private LocalDateTime staleAsOf;
 }
@@ -0,0 +1,17 @@
+package com.example.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitingRoom {
+    private Long eventId;
+    private Integer admissionsPerMinute;
+    private LocalDateTime lastAdmissionAt;
+    private LocalDateTime createdAt;
+}
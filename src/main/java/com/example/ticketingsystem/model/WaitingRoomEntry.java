@@ -0,0 +1,19 @@
+package com.example.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitingRoomEntry {
+    private Long id;
+    private Long eventId;
+    private Long userId;
+    private LocalDateTime joinedAt;
+    private LocalDateTime admittedAt;
+    private LocalDateTime usedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.ticketingsystem.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitingRoomStatus {
+    private Long eventId;
+    private String status;
+    private Long position;
+    private Long estimatedWaitSeconds;
+    private Long pollAfterSeconds;
+    private String admissionToken;
+    private LocalDateTime admissionExpiresAt;
+}
@@ -0,0 +1,20 @@
+package com.example.ticketingsystem.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class AdvisoryLockDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AdvisoryLockDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean tryTransactionLock(String name) {
+        String query = "SELECT pg_try_advisory_xact_lock(hashtext(?))";
+        Boolean locked = jdbcTemplate.queryForObject(query, Boolean.class, name);
+        return Boolean.TRUE.equals(locked);
+    }
+}
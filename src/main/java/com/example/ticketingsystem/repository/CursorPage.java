@@ -0,0 +1,21 @@
+package com.example.ticketingsystem.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> items, Optional<String> nextCursor) {
+
+    // DAO выбирает size + 1 строк: лишняя строка лишь сигнализирует, что следующая страница существует
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, Optional.empty());
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, Optional.of(cursorOf.apply(items.getLast()).encode()));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
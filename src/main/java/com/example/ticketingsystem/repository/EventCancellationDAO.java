@@ -0,0 +1,76 @@
+package com.example.ticketingsystem.repository;
+
+import com.example.ticketingsystem.mapper.EventCancellationRowMapper;
+import com.example.ticketingsystem.model.EventCancellation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class EventCancellationDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventCancellationDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public EventCancellation start(Long eventId, int totalOrders) {
+        String query = """
+                INSERT INTO event_cancellations (event_id, total_orders)
+                VALUES (?, ?)
+                ON CONFLICT (event_id) DO UPDATE
+                    SET status           = 'running',
+                        total_orders     = EXCLUDED.total_orders,
+                        cancelled_orders = 0,
+                        last_order_id    = 0,
+                        started_at       = CURRENT_TIMESTAMP,
+                        updated_at       = CURRENT_TIMESTAMP,
+                        completed_at     = NULL
+                    WHERE event_cancellations.status <> 'running'
+                """;
+        jdbcTemplate.update(query, eventId, totalOrders);
+        return findByEventId(eventId).orElseThrow();
+    }
+
+    public Optional<EventCancellation> findByEventId(Long eventId) {
+        String query = "SELECT * FROM event_cancellations WHERE event_id = ?";
+        List<EventCancellation> results = jdbcTemplate.query(query, new EventCancellationRowMapper(), eventId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public Optional<EventCancellation> findByEventIdForUpdate(Long eventId) {
+        String query = "SELECT * FROM event_cancellations WHERE event_id = ? FOR UPDATE";
+        List<EventCancellation> results = jdbcTemplate.query(query, new EventCancellationRowMapper(), eventId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public List<Long> findRunningEventIds() {
+        String query = "SELECT event_id FROM event_cancellations WHERE status = 'running' ORDER BY updated_at";
+        return jdbcTemplate.queryForList(query, Long.class);
+    }
+
+    public int advance(Long eventId, Long lastOrderId, int cancelledOrders) {
+        String query = """
+                UPDATE event_cancellations
+                SET last_order_id    = ?,
+                    cancelled_orders = cancelled_orders + ?,
+                    updated_at       = CURRENT_TIMESTAMP
+                WHERE event_id = ?
+                """;
+        return jdbcTemplate.update(query, lastOrderId, cancelledOrders, eventId);
+    }
+
+    public int complete(Long eventId) {
+        String query = """
+                UPDATE event_cancellations
+                SET status       = 'completed',
+                    updated_at   = CURRENT_TIMESTAMP,
+                    completed_at = CURRENT_TIMESTAMP
+                WHERE event_id = ?
+                """;
+        return jdbcTemplate.update(query, eventId);
+    }
+}
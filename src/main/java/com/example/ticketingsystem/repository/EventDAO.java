@@ -3,12 +3,16 @@ package com.example.ticketingsystem.repository;
 import com.example.ticketingsystem.mapper.EventRowMapper;
 import com.example.ticketingsystem.model.Event;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -36,7 +40,24 @@ public class EventDAO {
         return jdbcTemplate.query(query, new EventRowMapper());
     }
 
-    public List<Event> getAllEvents(int page, int size) {
+    public List<Event> getAllEvents(PageCursor after, int limit) {
+        if (after == null) {
+            String query = """
+                    SELECT id,
+                    title,
+                    description,
+                    organizer_id,
+                    venue_id,
+                    start_datetime,
+                    end_datetime,
+                    event_status
+                    FROM events
+                    ORDER BY start_datetime DESC, id DESC
+                    LIMIT ?
+                    """;
+            return jdbcTemplate.query(query, new EventRowMapper(), limit);
+        }
+
         String query = """
                 SELECT id,
                 title,
@@ -47,11 +68,11 @@ public class EventDAO {
                 end_datetime,
                 event_status
                 FROM events
-                ORDER BY start_datetime DESC
-                LIMIT ? OFFSET ?
+                WHERE (start_datetime, id) < (?, ?)
+                ORDER BY start_datetime DESC, id DESC
+                LIMIT ?
                 """;
-        int offset = page * size;
-        return jdbcTemplate.query(query, new EventRowMapper(), size, offset);
+        return jdbcTemplate.query(query, new EventRowMapper(), after.sortKey(), after.id(), limit);
     }
 
     public Optional<Event> getEventById(Long id) {
@@ -125,6 +146,56 @@ public class EventDAO {
         jdbcTemplate.update(query, status, eventId);
     }
 
+    // Публикация не должна вернуть в продажу мероприятие, которое сейчас отменяется
+    public int publishEvent(Long eventId) {
+        String query = """
+                UPDATE events
+                SET event_status = 'published'
+                WHERE id = ? AND event_status <> 'cancelling'
+                """;
+        return jdbcTemplate.update(query, eventId);
+    }
+
+    // Эксклюзивная блокировка: дожидается заказов и оплат, которые уже проверили статус через lockStatuses
+    public Optional<String> findStatusForUpdate(Long eventId) {
+        String query = "SELECT event_status FROM events WHERE id = ? FOR UPDATE";
+        List<String> results = jdbcTemplate.queryForList(query, String.class, eventId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    // FOR KEY SHARE не мешает параллельным заказам, но не дает начать отмену до коммита
+    public Map<Long, String> lockStatuses(Collection<Long> eventIds) {
+        String query = """
+                SELECT id, event_status
+                FROM events
+                WHERE id = ANY(?)
+                ORDER BY id
+                FOR KEY SHARE
+                """;
+        Map<Long, String> statuses = new HashMap<>();
+        jdbcTemplate.query(query,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", eventIds.toArray())),
+                (RowCallbackHandler) rs -> statuses.put(rs.getLong("id"), rs.getString("event_status")));
+        return statuses;
+    }
+
+    public Map<Long, String> lockStatusesByOrderId(Long orderId) {
+        String query = """
+                SELECT id, event_status
+                FROM events
+                WHERE id IN (SELECT tc.event_id
+                             FROM order_items oi
+                             JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                             WHERE oi.order_id = ?)
+                ORDER BY id
+                FOR KEY SHARE
+                """;
+        Map<Long, String> statuses = new HashMap<>();
+        jdbcTemplate.query(query,
+                (RowCallbackHandler) rs -> statuses.put(rs.getLong("id"), rs.getString("event_status")), orderId);
+        return statuses;
+    }
+
     public void deleteEvent(Long id) {
         String query = "DELETE FROM events WHERE id = ?";
         jdbcTemplate.update(query, id);
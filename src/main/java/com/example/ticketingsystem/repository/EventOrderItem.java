@@ -0,0 +1,6 @@
+package com.example.ticketingsystem.repository;
+
+import com.example.ticketingsystem.model.OrderItem;
+
+public record EventOrderItem(OrderItem item, Long eventId) {
+}
@@ -0,0 +1,117 @@
+package com.example.ticketingsystem.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public class InventorySlotDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventorySlotDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int consume(Long ticketCategoryId, String nodeId, int slot, int quantity) {
+        String query = """
+                UPDATE inventory_slots
+                SET quantity = quantity - ?,
+                    updated_at = CURRENT_TIMESTAMP
+                WHERE ticket_category_id = ? AND node_id = ? AND slot = ? AND quantity >= ?
+                """;
+        return jdbcTemplate.update(query, quantity, ticketCategoryId, nodeId, slot, quantity);
+    }
+
+    public Optional<Integer> lease(Long ticketCategoryId, String nodeId, int slot, int maxQuantity) {
+        String query = """
+                WITH taken AS (
+                    UPDATE ticket_categories tc
+                    SET quantity_available = tc.quantity_available - c.amount
+                    FROM (SELECT id, LEAST(quantity_available, ?) AS amount
+                          FROM ticket_categories
+                          WHERE id = ? AND quantity_available > 0
+                          FOR UPDATE) c
+                    WHERE tc.id = c.id
+                    RETURNING c.amount
+                )
+                INSERT INTO inventory_slots (ticket_category_id, node_id, slot, quantity, updated_at)
+                SELECT ?, ?, ?, amount, CURRENT_TIMESTAMP
+                FROM taken
+                ON CONFLICT (ticket_category_id, node_id, slot)
+                    DO UPDATE SET quantity   = inventory_slots.quantity + EXCLUDED.quantity,
+                                  updated_at = EXCLUDED.updated_at
+                RETURNING quantity
+                """;
+        List<Integer> results = jdbcTemplate.query(query, (rs, rowNum) -> rs.getInt("quantity"),
+                maxQuantity, ticketCategoryId, ticketCategoryId, nodeId, slot);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public Map<Integer, Integer> findSlots(Long ticketCategoryId, String nodeId) {
+        String query = """
+                SELECT slot, quantity
+                FROM inventory_slots
+                WHERE ticket_category_id = ? AND node_id = ?
+                """;
+        Map<Integer, Integer> slots = new HashMap<>();
+        jdbcTemplate.query(query, (RowCallbackHandler) rs -> slots.put(rs.getInt("slot"), rs.getInt("quantity")),
+                ticketCategoryId, nodeId);
+        return slots;
+    }
+
+    public int releaseCategorySlots(Long ticketCategoryId, String nodeId) {
+        String query = """
+                WITH released AS (
+                    DELETE FROM inventory_slots
+                    WHERE ticket_category_id = ? AND node_id = ?
+                    RETURNING quantity
+                )
+                UPDATE ticket_categories
+                SET quantity_available = quantity_available + (SELECT SUM(quantity) FROM released)
+                WHERE id = ? AND EXISTS (SELECT 1 FROM released)
+                """;
+        return jdbcTemplate.update(query, ticketCategoryId, nodeId, ticketCategoryId);
+    }
+
+    public List<Long> releaseNodeSlots(String nodeId, long idleMillis) {
+        String query = """
+                WITH released AS (
+                    DELETE FROM inventory_slots
+                    WHERE node_id = ? AND updated_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'
+                    RETURNING ticket_category_id, quantity
+                )
+                UPDATE ticket_categories tc
+                SET quantity_available = tc.quantity_available + r.quantity
+                FROM (SELECT ticket_category_id, SUM(quantity) AS quantity
+                      FROM released
+                      GROUP BY ticket_category_id) r
+                WHERE tc.id = r.ticket_category_id
+                RETURNING tc.id
+                """;
+        return jdbcTemplate.queryForList(query, Long.class, nodeId, idleMillis);
+    }
+
+    public List<Long> releaseStaleSlots(long staleMillis) {
+        String query = """
+                WITH released AS (
+                    DELETE FROM inventory_slots
+                    WHERE updated_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'
+                    RETURNING ticket_category_id, quantity
+                )
+                UPDATE ticket_categories tc
+                SET quantity_available = tc.quantity_available + r.quantity
+                FROM (SELECT ticket_category_id, SUM(quantity) AS quantity
+                      FROM released
+                      GROUP BY ticket_category_id) r
+                WHERE tc.id = r.ticket_category_id
+                RETURNING tc.id
+                """;
+        return jdbcTemplate.queryForList(query, Long.class, staleMillis);
+    }
+}
@@ -2,16 +2,21 @@ package com.example.ticketingsystem.repository;
 
 import com.example.ticketingsystem.mapper.OrderRowMapper;
 import com.example.ticketingsystem.model.Order;
+import com.example.ticketingsystem.model.OrderItem;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class OrderDAO {
@@ -44,6 +49,45 @@ public class OrderDAO {
         return order;
     }
 
+    public Optional<Order> createWithItemsAndPayment(Order order, List<OrderItem> items) {
+        String query = """
+                WITH new_order AS (
+                    INSERT INTO orders (order_number, user_id, status, total_amount, created_at)
+                    SELECT ?, u.id, ?, ?, ?
+                    FROM users u
+                    WHERE u.id = ?
+                    RETURNING id, order_number, user_id, status, total_amount, created_at
+                ), new_items AS (
+                    INSERT INTO order_items (order_id, ticket_category_id, quantity, unit_price)
+                    SELECT o.id, i.ticket_category_id, i.quantity, i.unit_price
+                    FROM new_order o,
+                         unnest(?::bigint[], ?::int[], ?::numeric[]) AS i(ticket_category_id, quantity, unit_price)
+                    RETURNING id
+                ), new_payment AS (
+                    INSERT INTO payments (order_id, amount, status)
+                    SELECT id, total_amount, 'pending'
+                    FROM new_order
+                    RETURNING id
+                )
+                SELECT id, order_number, user_id, status, total_amount, created_at
+                FROM new_order
+                """;
+        List<Order> results = jdbcTemplate.query(query, ps -> {
+            ps.setString(1, order.getOrderNumber());
+            ps.setString(2, order.getStatus());
+            ps.setBigDecimal(3, order.getTotalAmount());
+            ps.setObject(4, order.getCreatedAt());
+            ps.setLong(5, order.getUserId());
+            ps.setArray(6, ps.getConnection().createArrayOf("bigint",
+                    items.stream().map(OrderItem::getTicketCategoryId).toArray()));
+            ps.setArray(7, ps.getConnection().createArrayOf("integer",
+                    items.stream().map(OrderItem::getQuantity).toArray()));
+            ps.setArray(8, ps.getConnection().createArrayOf("numeric",
+                    items.stream().map(OrderItem::getUnitPrice).toArray()));
+        }, new OrderRowMapper());
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
     public Optional<Order> findById(Long id) {
         String query = """
                 SELECT id, order_number, user_id, status, total_amount, created_at
@@ -54,6 +98,17 @@ public class OrderDAO {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
     }
 
+    public Optional<Order> findByIdForUpdate(Long id) {
+        String query = """
+                SELECT id, order_number, user_id, status, total_amount, created_at
+                FROM orders
+                WHERE id = ?
+                FOR UPDATE
+                """;
+        List<Order> results = jdbcTemplate.query(query, new OrderRowMapper(), id);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
     public List<Order> findAll() {
         String query = """
                 SELECT id, order_number, user_id, status, total_amount, created_at
@@ -63,15 +118,25 @@ public class OrderDAO {
         return jdbcTemplate.query(query, new OrderRowMapper());
     }
 
-    public List<Order> findAll(int page, int size) {
+    public List<Order> findAll(PageCursor after, int limit) {
+        if (after == null) {
+            String query = """
+                    SELECT id, order_number, user_id, status, total_amount, created_at
+                    FROM orders
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT ?
+                    """;
+            return jdbcTemplate.query(query, new OrderRowMapper(), limit);
+        }
+
         String query = """
                 SELECT id, order_number, user_id, status, total_amount, created_at
                 FROM orders
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
+                WHERE (created_at, id) < (?, ?)
+                ORDER BY created_at DESC, id DESC
+                LIMIT ?
                 """;
-        int offset = page * size;
-        return jdbcTemplate.query(query, new OrderRowMapper(), size, offset);
+        return jdbcTemplate.query(query, new OrderRowMapper(), after.sortKey(), after.id(), limit);
     }
 
     public List<Order> findByUserId(Long userId) {
@@ -94,16 +159,50 @@ public class OrderDAO {
         return jdbcTemplate.query(query, new OrderRowMapper(), status);
     }
 
-    public List<Order> findByStatus(String status, int page, int size) {
+    public List<Order> findByStatus(String status, PageCursor after, int limit) {
+        if (after == null) {
+            String query = """
+                    SELECT id, order_number, user_id, status, total_amount, created_at
+                    FROM orders
+                    WHERE status = ?
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT ?
+                    """;
+            return jdbcTemplate.query(query, new OrderRowMapper(), status, limit);
+        }
+
         String query = """
                 SELECT id, order_number, user_id, status, total_amount, created_at
                 FROM orders
-                WHERE status = ?
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
+                WHERE status = ? AND (created_at, id) < (?, ?)
+                ORDER BY created_at DESC, id DESC
+                LIMIT ?
                 """;
-        int offset = page * size;
-        return jdbcTemplate.query(query, new OrderRowMapper(), status, size, offset);
+        return jdbcTemplate.query(query, new OrderRowMapper(), status, after.sortKey(), after.id(), limit);
+    }
+
+    public void streamAll(String status, int fetchSize, Consumer<Order> consumer) {
+        String query = status == null
+                ? """
+                  SELECT id, order_number, user_id, status, total_amount, created_at
+                  FROM orders
+                  ORDER BY created_at DESC, id DESC
+                  """
+                : """
+                  SELECT id, order_number, user_id, status, total_amount, created_at
+                  FROM orders
+                  WHERE status = ?
+                  ORDER BY created_at DESC, id DESC
+                  """;
+        OrderRowMapper mapper = new OrderRowMapper();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            if (status != null) {
+                ps.setString(1, status);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapper.mapRow(rs, rs.getRow())));
     }
 
     public Order updateStatus(Long id, String status) {
@@ -116,6 +215,61 @@ public class OrderDAO {
         return findById(id).orElseThrow();
     }
 
+    public List<Long> lockPendingIdsByEventId(Long eventId, Long afterId, int limit) {
+        String query = """
+                SELECT o.id
+                FROM orders o
+                WHERE o.id IN (SELECT oi.order_id
+                               FROM order_items oi
+                               JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                               WHERE tc.event_id = ? AND oi.order_id > ?)
+                  AND o.status = 'pending'
+                ORDER BY o.id
+                LIMIT ?
+                FOR UPDATE OF o
+                """;
+        return jdbcTemplate.queryForList(query, Long.class, eventId, afterId, limit);
+    }
+
+    public int countByEventIdAndStatus(Long eventId, String status) {
+        String query = """
+                SELECT COUNT(*)
+                FROM orders o
+                WHERE o.id IN (SELECT oi.order_id
+                               FROM order_items oi
+                               JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                               WHERE tc.event_id = ?)
+                  AND o.status = ?
+                """;
+        return jdbcTemplate.queryForObject(query, Integer.class, eventId, status);
+    }
+
+    public List<Order> lockExpiredPending(long holdMillis, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        String query = """
+                SELECT id, order_number, user_id, status, total_amount, created_at
+                FROM orders
+                WHERE status = 'pending'
+                  AND created_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'
+                  AND (created_at, id) > (?, ?)
+                ORDER BY created_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """;
+        return jdbcTemplate.query(query, new OrderRowMapper(), holdMillis, afterCreatedAt, afterId, limit);
+    }
+
+    public int updateStatuses(List<Long> ids, String status) {
+        String query = """
+                UPDATE orders
+                SET status = ?
+                WHERE id = ANY(?)
+                """;
+        return jdbcTemplate.update(query, ps -> {
+            ps.setString(1, status);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        });
+    }
+
     public Order updateTotalAmount(Long orderId, BigDecimal newPrice) {
         String query = """
                 UPDATE orders
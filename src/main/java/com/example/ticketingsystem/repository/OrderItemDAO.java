@@ -49,13 +49,30 @@ public class OrderItemDAO {
         return jdbcTemplate.query(query, new OrderItemRowMapper(), orderId);
     }
 
-    public void updatePromoCodeId(Long orderItemId, Long promoCodeId) {
+    public List<EventOrderItem> findByOrderIdWithEventId(Long orderId) {
+        String query = """
+                SELECT oi.id, oi.order_id, oi.ticket_category_id, oi.quantity, oi.unit_price, oi.promo_code_id,
+                       tc.event_id
+                FROM order_items oi
+                JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                WHERE oi.order_id = ?
+                ORDER BY oi.id
+                """;
+        OrderItemRowMapper mapper = new OrderItemRowMapper();
+        return jdbcTemplate.query(query,
+                (rs, rowNum) -> new EventOrderItem(mapper.mapRow(rs, rowNum), rs.getLong("event_id")), orderId);
+    }
+
+    public int updatePromoCodeIds(List<Long> orderItemIds, Long promoCodeId) {
         String query = """
                 UPDATE order_items
                 SET promo_code_id = ?
-                WHERE id = ?
+                WHERE id = ANY(?)
                 """;
-        jdbcTemplate.update(query, promoCodeId, orderItemId);
+        return jdbcTemplate.update(query, ps -> {
+            ps.setLong(1, promoCodeId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", orderItemIds.toArray()));
+        });
     }
 
     public int countByTicketCategoryId(Long ticketCategoryId) {
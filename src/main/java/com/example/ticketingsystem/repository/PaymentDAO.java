@@ -8,6 +8,7 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -80,4 +81,14 @@ public class PaymentDAO {
                 """;
         return jdbcTemplate.queryForObject(selectQuery, new PaymentRowMapper(), id);
     }
+
+    public int failPendingByOrderIds(List<Long> orderIds) {
+        String query = """
+                UPDATE payments
+                SET status = 'failed'
+                WHERE order_id = ANY(?) AND status = 'pending'
+                """;
+        return jdbcTemplate.update(query,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", orderIds.toArray())));
+    }
 }
@@ -22,8 +22,8 @@ public class PromoCodeDAO {
 
     public PromoCode createPromoCode(PromoCode promoCode) {
         String query = """
-                INSERT INTO promo_codes(code, event_id, discount_type, discount_value, max_uses, used_count, valid_from, valid_until)
-                VALUES(?, ?, ?, ?, ?, ?, ?, ?)
+                INSERT INTO promo_codes(code, event_id, discount_type, discount_value, max_uses, valid_from, valid_until)
+                VALUES(?, ?, ?, ?, ?, ?, ?)
                 """;
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -34,20 +34,24 @@ public class PromoCodeDAO {
             ps.setString(3, promoCode.getDiscountType());
             ps.setBigDecimal(4, promoCode.getDiscountValue());
             ps.setObject(5, promoCode.getMaxUses());
-            ps.setInt(6, promoCode.getUsedCount());
-            ps.setObject(7, promoCode.getValidFrom());
-            ps.setObject(8, promoCode.getValidUntil());
+            ps.setObject(6, promoCode.getValidFrom());
+            ps.setObject(7, promoCode.getValidUntil());
             return ps;
         }, keyHolder);
         promoCode.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        promoCode.setUsedCount(0);
         return promoCode;
     }
 
     public Optional<PromoCode> findById(Long id) {
         String query = """
-                SELECT id, code, event_id, discount_type, discount_value, max_uses, used_count, valid_from, valid_until
-                FROM promo_codes
-                WHERE id = ?
+                SELECT pc.id, pc.code, pc.event_id, pc.discount_type, pc.discount_value, pc.max_uses,
+                       (SELECT COALESCE(SUM(s.used_count), 0)
+                        FROM promo_code_usage_slots s
+                        WHERE s.promo_code_id = pc.id) AS used_count,
+                       pc.valid_from, pc.valid_until
+                FROM promo_codes pc
+                WHERE pc.id = ?
                 """;
         List<PromoCode> promoCodes = jdbcTemplate.query(query, new PromoCodeRowMapper(), id);
         return promoCodes.isEmpty() ? Optional.empty() : Optional.of(promoCodes.getFirst());
@@ -55,9 +59,13 @@ public class PromoCodeDAO {
 
     public Optional<PromoCode> findByCode(String code) {
         String query = """
-                SELECT id, code, event_id, discount_type, discount_value, max_uses, used_count, valid_from, valid_until
-                FROM promo_codes
-                WHERE code = ?
+                SELECT pc.id, pc.code, pc.event_id, pc.discount_type, pc.discount_value, pc.max_uses,
+                       (SELECT COALESCE(SUM(s.used_count), 0)
+                        FROM promo_code_usage_slots s
+                        WHERE s.promo_code_id = pc.id) AS used_count,
+                       pc.valid_from, pc.valid_until
+                FROM promo_codes pc
+                WHERE pc.code = ?
                 """;
         List<PromoCode> promoCodes = jdbcTemplate.query(query, new PromoCodeRowMapper(), code);
         return promoCodes.isEmpty() ? Optional.empty() : Optional.of(promoCodes.getFirst());
@@ -65,31 +73,17 @@ public class PromoCodeDAO {
 
     public List<PromoCode> findByEventId(Long eventId) {
         String query = """
-                SELECT id, code, event_id, discount_type, discount_value, max_uses, used_count, valid_from, valid_until
-                FROM promo_codes
-                WHERE event_id = ?
+                SELECT pc.id, pc.code, pc.event_id, pc.discount_type, pc.discount_value, pc.max_uses,
+                       (SELECT COALESCE(SUM(s.used_count), 0)
+                        FROM promo_code_usage_slots s
+                        WHERE s.promo_code_id = pc.id) AS used_count,
+                       pc.valid_from, pc.valid_until
+                FROM promo_codes pc
+                WHERE pc.event_id = ?
                 """;
         return jdbcTemplate.query(query, new PromoCodeRowMapper(), eventId);
     }
 
-    public int incrementUsedCount(Long id) {
-        String query = """
-                UPDATE promo_codes
-                SET used_count = used_count + 1
-                WHERE id = ? AND (max_uses IS NULL OR used_count < max_uses);
-                """;
-        return jdbcTemplate.update(query, id);
-    }
-
-    public int decrementUsedCount(Long id) {
-        String query = """
-                UPDATE promo_codes
-                SET used_count = used_count - 1
-                WHERE id = ? AND used_count > 0
-                """;
-        return jdbcTemplate.update(query, id);
-    }
-
     public PromoCode update(PromoCode promoCode) {
         String query = """
                 UPDATE promo_codes
@@ -126,8 +120,12 @@ public class PromoCodeDAO {
 
     public List<PromoCode> getAllPromoCodes() {
         String query = """
-                SELECT id, code, event_id, discount_type, discount_value, max_uses, used_count, valid_from, valid_until
-                FROM promo_codes
+                SELECT pc.id, pc.code, pc.event_id, pc.discount_type, pc.discount_value, pc.max_uses,
+                       (SELECT COALESCE(SUM(s.used_count), 0)
+                        FROM promo_code_usage_slots s
+                        WHERE s.promo_code_id = pc.id) AS used_count,
+                       pc.valid_from, pc.valid_until
+                FROM promo_codes pc
                 """;
         return jdbcTemplate.query(query, new PromoCodeRowMapper());
     }
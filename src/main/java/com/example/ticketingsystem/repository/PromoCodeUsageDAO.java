@@ -0,0 +1,69 @@
+package com.example.ticketingsystem.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class PromoCodeUsageDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PromoCodeUsageDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean consume(Long promoCodeId, boolean skipLocked) {
+        String query = """
+                WITH target AS (
+                    SELECT slot
+                    FROM promo_code_usage_slots
+                    WHERE promo_code_id = ? AND (remaining IS NULL OR remaining > 0)
+                    ORDER BY random()
+                    LIMIT 1
+                    FOR UPDATE %s
+                )
+                UPDATE promo_code_usage_slots s
+                SET used_count = s.used_count + 1,
+                    remaining  = s.remaining - 1
+                FROM target t
+                WHERE s.promo_code_id = ? AND s.slot = t.slot
+                """.formatted(skipLocked ? "SKIP LOCKED" : "");
+        return jdbcTemplate.update(query, promoCodeId, promoCodeId) > 0;
+    }
+
+    public int releaseForOrders(List<Long> orderIds) {
+        String query = """
+                WITH released AS (
+                    SELECT promo_code_id, COUNT(DISTINCT order_id) AS uses
+                    FROM order_items
+                    WHERE order_id = ANY(?) AND promo_code_id IS NOT NULL
+                    GROUP BY promo_code_id
+                ),
+                locked AS MATERIALIZED (
+                    SELECT promo_code_id, slot, used_count
+                    FROM promo_code_usage_slots
+                    WHERE promo_code_id IN (SELECT promo_code_id FROM released)
+                    ORDER BY promo_code_id, slot
+                    FOR UPDATE
+                ),
+                taken AS (
+                    SELECT l.promo_code_id,
+                           l.slot,
+                           LEAST(l.used_count,
+                                 GREATEST(r.uses - (SUM(l.used_count) OVER w - l.used_count), 0)) AS amount
+                    FROM locked l
+                             JOIN released r ON r.promo_code_id = l.promo_code_id
+                    WINDOW w AS (PARTITION BY l.promo_code_id ORDER BY l.slot)
+                )
+                UPDATE promo_code_usage_slots s
+                SET used_count = s.used_count - t.amount,
+                    remaining  = s.remaining + t.amount
+                FROM taken t
+                WHERE s.promo_code_id = t.promo_code_id AND s.slot = t.slot AND t.amount > 0
+                """;
+        return jdbcTemplate.update(query,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", orderIds.toArray())));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.ticketingsystem.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class SalesSummaryDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesSummaryDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void recordConfirmed(Long orderId) {
+        applyOrder(orderId, 1);
+    }
+
+    public void recordCancelled(Long orderId) {
+        applyOrder(orderId, -1);
+    }
+
+    private void applyOrder(Long orderId, int sign) {
+        // Сначала строка сводки (она же блокировка категории), затем почасовые корзины той же категории
+        String summaryQuery = """
+                INSERT INTO event_sales_summary AS s
+                    (category_id, event_id, tickets_sold, revenue, item_count, unit_price_total, updated_at)
+                SELECT oi.ticket_category_id,
+                       tc.event_id,
+                       ? * SUM(oi.quantity),
+                       ? * SUM(oi.quantity * oi.unit_price),
+                       ? * COUNT(*),
+                       ? * SUM(oi.unit_price),
+                       CURRENT_TIMESTAMP
+                FROM order_items oi
+                         JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                WHERE oi.order_id = ?
+                GROUP BY oi.ticket_category_id, tc.event_id
+                ORDER BY oi.ticket_category_id
+                ON CONFLICT (category_id) DO UPDATE
+                    SET tickets_sold     = s.tickets_sold + EXCLUDED.tickets_sold,
+                        revenue          = s.revenue + EXCLUDED.revenue,
+                        item_count       = s.item_count + EXCLUDED.item_count,
+                        unit_price_total = s.unit_price_total + EXCLUDED.unit_price_total,
+                        updated_at       = EXCLUDED.updated_at
+                """;
+        jdbcTemplate.update(summaryQuery, sign, sign, sign, sign, orderId);
+
+        String hourlyQuery = """
+                INSERT INTO event_sales_hourly AS h (category_id, bucket_start, tickets_sold, revenue)
+                SELECT oi.ticket_category_id,
+                       date_trunc('hour', o.created_at),
+                       ? * SUM(oi.quantity),
+                       ? * SUM(oi.quantity * oi.unit_price)
+                FROM order_items oi
+                         JOIN orders o ON o.id = oi.order_id
+                WHERE oi.order_id = ?
+                GROUP BY oi.ticket_category_id, date_trunc('hour', o.created_at)
+                ORDER BY oi.ticket_category_id
+                ON CONFLICT (category_id, bucket_start) DO UPDATE
+                    SET tickets_sold = h.tickets_sold + EXCLUDED.tickets_sold,
+                        revenue      = h.revenue + EXCLUDED.revenue
+                """;
+        jdbcTemplate.update(hourlyQuery, sign, sign, orderId);
+    }
+
+    public List<Long> findDriftedCategories() {
+        String query = """
+                WITH raw AS (
+                    SELECT oi.ticket_category_id AS category_id,
+                           tc.event_id,
+                           SUM(oi.quantity) AS tickets_sold,
+                           SUM(oi.quantity * oi.unit_price) AS revenue,
+                           COUNT(*) AS item_count,
+                           SUM(oi.unit_price) AS unit_price_total
+                    FROM order_items oi
+                             JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+                             JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+                    GROUP BY oi.ticket_category_id, tc.event_id
+                ),
+                raw_window AS (
+                    SELECT oi.ticket_category_id AS category_id, SUM(oi.quantity) AS tickets_sold
+                    FROM order_items oi
+                             JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+                    WHERE o.created_at >= date_trunc('hour', now() - INTERVAL '7 days')
+                    GROUP BY oi.ticket_category_id
+                ),
+                hourly_window AS (
+                    SELECT category_id, SUM(tickets_sold) AS tickets_sold
+                    FROM event_sales_hourly
+                    WHERE bucket_start >= date_trunc('hour', now() - INTERVAL '7 days')
+                    GROUP BY category_id
+                )
+                SELECT COALESCE(raw.category_id, s.category_id)
+                FROM raw
+                         FULL JOIN event_sales_summary s ON s.category_id = raw.category_id
+                WHERE COALESCE(raw.tickets_sold, 0) <> COALESCE(s.tickets_sold, 0)
+                   OR COALESCE(raw.revenue, 0) <> COALESCE(s.revenue, 0)
+                   OR COALESCE(raw.item_count, 0) <> COALESCE(s.item_count, 0)
+                   OR COALESCE(raw.unit_price_total, 0) <> COALESCE(s.unit_price_total, 0)
+                   OR raw.event_id <> s.event_id
+                UNION
+                SELECT COALESCE(rw.category_id, hw.category_id)
+                FROM raw_window rw
+                         FULL JOIN hourly_window hw ON hw.category_id = rw.category_id
+                WHERE COALESCE(rw.tickets_sold, 0) <> COALESCE(hw.tickets_sold, 0)
+                ORDER BY 1
+                """;
+        return jdbcTemplate.queryForList(query, Long.class);
+    }
+
+    public void rebuildCategories(List<Long> categoryIds) {
+        // Блокируем существующие строки сводки до пересчета: параллельные подтверждения либо уже
+        // закоммичены и видны следующему запросу, либо применят свою дельту поверх исправленного значения
+        String lockQuery = """
+                SELECT category_id
+                FROM event_sales_summary
+                WHERE category_id = ANY(?)
+                ORDER BY category_id
+                FOR UPDATE
+                """;
+        jdbcTemplate.query(lockQuery,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", categoryIds.toArray())),
+                (rs, rowNum) -> rs.getLong(1));
+
+        String summaryQuery = """
+                WITH ids AS (
+                    SELECT unnest(?::bigint[]) AS category_id
+                ),
+                raw AS (
+                    SELECT ids.category_id,
+                           tc.event_id,
+                           COALESCE(SUM(oi.quantity), 0) AS tickets_sold,
+                           COALESCE(SUM(oi.quantity * oi.unit_price), 0) AS revenue,
+                           COUNT(oi.id) AS item_count,
+                           COALESCE(SUM(oi.unit_price), 0) AS unit_price_total
+                    FROM ids
+                             JOIN ticket_categories tc ON tc.id = ids.category_id
+                             LEFT JOIN order_items oi ON oi.ticket_category_id = ids.category_id
+                        AND EXISTS (SELECT 1 FROM orders o WHERE o.id = oi.order_id AND o.status = 'confirmed')
+                    GROUP BY ids.category_id, tc.event_id
+                )
+                INSERT INTO event_sales_summary
+                    (category_id, event_id, tickets_sold, revenue, item_count, unit_price_total, updated_at)
+                SELECT category_id, event_id, tickets_sold, revenue, item_count, unit_price_total, CURRENT_TIMESTAMP
+                FROM raw
+                ORDER BY category_id
+                ON CONFLICT (category_id) DO UPDATE
+                    SET event_id         = EXCLUDED.event_id,
+                        tickets_sold     = EXCLUDED.tickets_sold,
+                        revenue          = EXCLUDED.revenue,
+                        item_count       = EXCLUDED.item_count,
+                        unit_price_total = EXCLUDED.unit_price_total,
+                        updated_at       = EXCLUDED.updated_at
+                """;
+        jdbcTemplate.update(summaryQuery,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", categoryIds.toArray())));
+
+        String deleteHourlyQuery = "DELETE FROM event_sales_hourly WHERE category_id = ANY(?)";
+        jdbcTemplate.update(deleteHourlyQuery,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", categoryIds.toArray())));
+
+        String hourlyQuery = """
+                INSERT INTO event_sales_hourly (category_id, bucket_start, tickets_sold, revenue)
+                SELECT oi.ticket_category_id,
+                       date_trunc('hour', o.created_at),
+                       SUM(oi.quantity),
+                       SUM(oi.quantity * oi.unit_price)
+                FROM order_items oi
+                         JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+                WHERE oi.ticket_category_id = ANY(?)
+                GROUP BY oi.ticket_category_id, date_trunc('hour', o.created_at)
+                """;
+        jdbcTemplate.update(hourlyQuery,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", categoryIds.toArray())));
+    }
+}
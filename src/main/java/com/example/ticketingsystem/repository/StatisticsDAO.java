@@ -7,9 +7,13 @@ import com.example.ticketingsystem.model.EventSalesView;
 import com.example.ticketingsystem.model.PromoCodeEffectivenessView;
 import com.example.ticketingsystem.model.VenueUtilizationView;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class StatisticsDAO {
@@ -30,8 +34,23 @@ public class StatisticsDAO {
         return jdbcTemplate.query(query, new EventSalesViewRowMapper(), eventId);
     }
 
+    public void streamEventSales(Long eventId, int fetchSize, Consumer<EventSalesView> consumer) {
+        String query = eventId == null
+                ? "SELECT * FROM event_sales_view ORDER BY event_id, category_id"
+                : "SELECT * FROM event_sales_view WHERE event_id = ? ORDER BY category_id";
+        EventSalesViewRowMapper mapper = new EventSalesViewRowMapper();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            if (eventId != null) {
+                ps.setLong(1, eventId);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapper.mapRow(rs, rs.getRow())));
+    }
+
     public List<VenueUtilizationView> getVenueUtilization() {
-        String query = "SELECT * FROM venue_utilization_view";
+        String query = "SELECT * FROM venue_utilization_view ORDER BY total_revenue DESC, venue_id";
         return jdbcTemplate.query(query, new VenueUtilizationViewRowMapper());
     }
 
@@ -42,7 +61,7 @@ public class StatisticsDAO {
     }
 
     public List<PromoCodeEffectivenessView> getPromoCodeEffectiveness() {
-        String query = "SELECT * FROM promo_code_effectiveness_view";
+        String query = "SELECT * FROM promo_code_effectiveness_view ORDER BY total_discount_given DESC, promo_code_id";
         return jdbcTemplate.query(query, new PromoCodeEffectivenessViewRowMapper());
     }
 
@@ -51,4 +70,8 @@ public class StatisticsDAO {
         List<PromoCodeEffectivenessView> results = jdbcTemplate.query(query, new PromoCodeEffectivenessViewRowMapper(), promoCodeId);
         return results.isEmpty() ? null : results.getFirst();
     }
+
+    public void refreshMaterializedView(String viewName) {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + viewName);
+    }
 }
@@ -8,7 +8,9 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -20,28 +22,50 @@ public class TicketCategoryDAO {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    // Доступный остаток - это колонка плюс то, что уже выдано узлам в inventory_slots, но еще не продано
     public List<TicketCategory> findByEventId(Long eventId) {
         String query = """
-                SELECT id, event_id, name, description, price, quantity_available,
-                       sale_start_date, sale_end_date
-                FROM ticket_categories
-                WHERE event_id = ?
-                ORDER BY price
+                SELECT tc.id, tc.event_id, tc.name, tc.description, tc.price,
+                       tc.quantity_available + COALESCE((SELECT SUM(s.quantity)
+                                                         FROM inventory_slots s
+                                                         WHERE s.ticket_category_id = tc.id), 0) AS quantity_available,
+                       tc.sale_start_date, tc.sale_end_date
+                FROM ticket_categories tc
+                WHERE tc.event_id = ?
+                ORDER BY tc.price
                 """;
         return jdbcTemplate.query(query, new TicketCategoryRowMapper(), eventId);
     }
 
     public Optional<TicketCategory> findById(Long id) {
         String query = """
-                SELECT id, event_id, name, description, price, quantity_available,
-                       sale_start_date, sale_end_date
-                FROM ticket_categories
-                WHERE id = ?
+                SELECT tc.id, tc.event_id, tc.name, tc.description, tc.price,
+                       tc.quantity_available + COALESCE((SELECT SUM(s.quantity)
+                                                         FROM inventory_slots s
+                                                         WHERE s.ticket_category_id = tc.id), 0) AS quantity_available,
+                       tc.sale_start_date, tc.sale_end_date
+                FROM ticket_categories tc
+                WHERE tc.id = ?
                 """;
         List<TicketCategory> results = jdbcTemplate.query(query, new TicketCategoryRowMapper(), id);
         return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
     }
 
+    public List<TicketCategory> findByIds(Collection<Long> ids) {
+        String query = """
+                SELECT tc.id, tc.event_id, tc.name, tc.description, tc.price,
+                       tc.quantity_available + COALESCE((SELECT SUM(s.quantity)
+                                                         FROM inventory_slots s
+                                                         WHERE s.ticket_category_id = tc.id), 0) AS quantity_available,
+                       tc.sale_start_date, tc.sale_end_date
+                FROM ticket_categories tc
+                WHERE tc.id = ANY(?)
+                """;
+        return jdbcTemplate.query(query,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                new TicketCategoryRowMapper());
+    }
+
     public TicketCategory create(TicketCategory ticketCategory) {
         String query = """
                 INSERT INTO ticket_categories (event_id, name, description, price,
@@ -67,8 +91,20 @@ public class TicketCategoryDAO {
         return ticketCategory;
     }
 
+    // Новый остаток задается целиком, поэтому сначала забираем выданное узлам: иначе при возврате слотов
+    // оно легло бы поверх нового значения. Строка категории блокируется первой - новая выдача ждет коммита,
+    // а узлы, чьи слоты исчезли, получат отказ в consume и возьмут остаток заново
     public TicketCategory update(TicketCategory ticketCategory) {
         String query = """
+                WITH locked AS (
+                    SELECT id
+                    FROM ticket_categories
+                    WHERE id = ?
+                    FOR UPDATE
+                ), reclaimed AS (
+                    DELETE FROM inventory_slots
+                    WHERE ticket_category_id = (SELECT id FROM locked)
+                )
                 UPDATE ticket_categories
                 SET name = ?,
                     description = ?,
@@ -76,17 +112,17 @@ public class TicketCategoryDAO {
                     quantity_available = ?,
                     sale_start_date = ?,
                     sale_end_date = ?
-                WHERE id = ?
+                WHERE id = (SELECT id FROM locked)
                 """;
 
         jdbcTemplate.update(query,
+                ticketCategory.getId(),
                 ticketCategory.getName(),
                 ticketCategory.getDescription(),
                 ticketCategory.getPrice(),
                 ticketCategory.getQuantityAvailable(),
                 ticketCategory.getSaleStartDate(),
-                ticketCategory.getSaleEndDate(),
-                ticketCategory.getId());
+                ticketCategory.getSaleEndDate());
 
         return ticketCategory;
     }
@@ -105,6 +141,25 @@ public class TicketCategoryDAO {
         return jdbcTemplate.update(query, quantity, id, quantity);
     }
 
+    public List<Long> decreaseQuantities(Map<Long, Integer> quantities) {
+        String query = """
+                UPDATE ticket_categories tc
+                SET quantity_available = tc.quantity_available - r.quantity
+                FROM (SELECT c.id, req.quantity
+                      FROM ticket_categories c
+                      JOIN unnest(?::bigint[], ?::int[]) AS req(id, quantity) ON req.id = c.id
+                      WHERE c.quantity_available >= req.quantity
+                      ORDER BY c.id
+                      FOR UPDATE OF c) r
+                WHERE tc.id = r.id
+                RETURNING tc.id
+                """;
+        return jdbcTemplate.query(query, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", quantities.keySet().toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", quantities.values().toArray()));
+        }, (rs, rowNum) -> rs.getLong("id"));
+    }
+
     public int increaseQuantity(Long id, int quantity) {
         String query = """
                 UPDATE ticket_categories
@@ -113,4 +168,22 @@ public class TicketCategoryDAO {
                 """;
         return jdbcTemplate.update(query, quantity, id);
     }
+
+    public int restoreQuantitiesForOrders(List<Long> orderIds) {
+        String query = """
+                UPDATE ticket_categories tc
+                SET quantity_available = tc.quantity_available + r.quantity
+                FROM (SELECT c.id, items.quantity
+                      FROM ticket_categories c
+                      JOIN (SELECT ticket_category_id, SUM(quantity) AS quantity
+                            FROM order_items
+                            WHERE order_id = ANY(?)
+                            GROUP BY ticket_category_id) items ON items.ticket_category_id = c.id
+                      ORDER BY c.id
+                      FOR UPDATE OF c) r
+                WHERE tc.id = r.id
+                """;
+        return jdbcTemplate.update(query,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", orderIds.toArray())));
+    }
 }
@@ -3,13 +3,19 @@ package com.example.ticketingsystem.repository;
 import com.example.ticketingsystem.mapper.TicketRowMapper;
 import com.example.ticketingsystem.model.Ticket;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class TicketDAO {
@@ -61,6 +67,29 @@ public class TicketDAO {
         return jdbcTemplate.batchUpdate(query, batchArgs);
     }
 
+    public int bulkCreate(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+        String query = """
+                INSERT INTO tickets (ticket_code, order_item_id, attendee_name, attendee_email, status)
+                SELECT * FROM unnest(?::varchar[], ?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[])
+                """;
+
+        return jdbcTemplate.update(query, ps -> {
+            var connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", tickets.stream().map(Ticket::getTicketCode).toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", tickets.stream().map(Ticket::getOrderItemId).toArray()));
+            ps.setArray(3, connection.createArrayOf("varchar", tickets.stream().map(Ticket::getAttendeeName).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar", tickets.stream().map(Ticket::getAttendeeEmail).toArray()));
+            ps.setArray(5, connection.createArrayOf("varchar", tickets.stream().map(Ticket::getStatus).toArray()));
+        });
+    }
+
+    public long nextCodeNodeId() {
+        return jdbcTemplate.queryForObject("SELECT nextval('ticket_code_node_seq')", Long.class);
+    }
+
     public int[] batchUpdateStatus(List<Long> ticketIds, String newStatus) {
         String query = "UPDATE tickets SET status = ? WHERE id = ?";
 
@@ -80,6 +109,50 @@ public class TicketDAO {
         return jdbcTemplate.query(query, new TicketRowMapper(), orderItemId);
     }
 
+    public List<Ticket> findByOrderId(Long orderId) {
+        String query = """
+                SELECT t.id, t.ticket_code, t.order_item_id, t.attendee_name, t.attendee_email, t.status
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                WHERE oi.order_id = ?
+                ORDER BY t.id
+                """;
+        return jdbcTemplate.query(query, new TicketRowMapper(), orderId);
+    }
+
+    public int countByOrderIdAndStatus(Long orderId, String status) {
+        String query = """
+                SELECT COUNT(*)
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                WHERE oi.order_id = ? AND t.status = ?
+                """;
+        return jdbcTemplate.queryForObject(query, Integer.class, orderId, status);
+    }
+
+    public int updateStatusByOrderId(Long orderId, String status) {
+        String query = """
+                UPDATE tickets t
+                SET status = ?
+                FROM order_items oi
+                WHERE t.order_item_id = oi.id AND oi.order_id = ?
+                """;
+        return jdbcTemplate.update(query, status, orderId);
+    }
+
+    public int updateStatusByOrderIds(List<Long> orderIds, String status) {
+        String query = """
+                UPDATE tickets t
+                SET status = ?
+                FROM order_items oi
+                WHERE t.order_item_id = oi.id AND oi.order_id = ANY(?)
+                """;
+        return jdbcTemplate.update(query, ps -> {
+            ps.setString(1, status);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", orderIds.toArray()));
+        });
+    }
+
     public List<Ticket> findByEventId(Long eventId) {
         String query = """
                 SELECT t.id, t.ticket_code, t.order_item_id, t.attendee_name, t.attendee_email, t.status
@@ -115,4 +188,86 @@ public class TicketDAO {
                 """;
         return jdbcTemplate.queryForObject(selectQuery, new TicketRowMapper(), id);
     }
+
+    public void streamGateEntriesByEventId(Long eventId, int fetchSize, Consumer<TicketGateEntry> consumer) {
+        String query = """
+                SELECT t.id, t.ticket_code, t.status, tc.event_id
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                JOIN ticket_categories tc ON oi.ticket_category_id = tc.id
+                WHERE tc.event_id = ?
+                """;
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, eventId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapGateEntry(rs)));
+    }
+
+    // Полный манифест - только действующие билеты; дельта - все билеты, выпущенные или сменившие статус с changedSince
+    public void streamManifestEntriesByEventId(Long eventId, LocalDateTime changedSince, int fetchSize,
+                                               Consumer<TicketGateEntry> consumer) {
+        String query = changedSince == null
+                ? """
+                SELECT t.id, t.ticket_code, t.status, tc.event_id
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                JOIN ticket_categories tc ON oi.ticket_category_id = tc.id
+                WHERE tc.event_id = ? AND t.status = 'active'
+                """
+                : """
+                SELECT t.id, t.ticket_code, t.status, tc.event_id
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                JOIN ticket_categories tc ON oi.ticket_category_id = tc.id
+                WHERE tc.event_id = ? AND t.status_changed_at >= ?
+                """;
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, eventId);
+            if (changedSince != null) {
+                ps.setTimestamp(2, Timestamp.valueOf(changedSince));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapGateEntry(rs)));
+    }
+
+    // Время начала текущей транзакции по часам базы - те же часы, что пишут status_changed_at
+    public LocalDateTime currentTransactionTime() {
+        return jdbcTemplate.queryForObject("SELECT now()::timestamp", LocalDateTime.class);
+    }
+
+    public Optional<TicketGateEntry> findGateEntryByTicketCode(String ticketCode) {
+        String query = """
+                SELECT t.id, t.ticket_code, t.status, tc.event_id
+                FROM tickets t
+                JOIN order_items oi ON t.order_item_id = oi.id
+                JOIN ticket_categories tc ON oi.ticket_category_id = tc.id
+                WHERE t.ticket_code = ?
+                """;
+        List<TicketGateEntry> results = jdbcTemplate.query(query, (rs, rowNum) -> mapGateEntry(rs), ticketCode);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public int checkIn(Long id) {
+        String query = """
+                UPDATE tickets
+                SET status = 'checked_in'
+                WHERE id = ? AND status = 'active'
+                """;
+        return jdbcTemplate.update(query, id);
+    }
+
+    public Optional<String> findStatusById(Long id) {
+        String query = "SELECT status FROM tickets WHERE id = ?";
+        List<String> results = jdbcTemplate.queryForList(query, String.class, id);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    private static TicketGateEntry mapGateEntry(ResultSet rs) throws SQLException {
+        return new TicketGateEntry(rs.getLong("id"), rs.getString("ticket_code"), rs.getString("status"),
+                rs.getLong("event_id"));
+    }
 }
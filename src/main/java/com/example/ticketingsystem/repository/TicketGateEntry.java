@@ -0,0 +1,4 @@
+package com.example.ticketingsystem.repository;
+
+public record TicketGateEntry(Long ticketId, String ticketCode, String status, Long eventId) {
+}
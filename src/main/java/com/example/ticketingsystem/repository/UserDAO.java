@@ -53,7 +53,23 @@ public class UserDAO {
         return jdbcTemplate.query(query, new UserRowMapper());
     }
 
-    public List<User> getAllUsers(int page, int size) {
+    public List<User> getAllUsers(PageCursor after, int limit) {
+        if (after == null) {
+            String query = """
+                    SELECT id,
+                    username,
+                    email,
+                    password_hash,
+                    first_name,
+                    last_name,
+                    created_at
+                    FROM users
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT ?
+                    """;
+            return jdbcTemplate.query(query, new UserRowMapper(), limit);
+        }
+
         String query = """
                 SELECT id,
                 username,
@@ -63,11 +79,11 @@ public class UserDAO {
                 last_name,
                 created_at
                 FROM users
-                ORDER BY created_at DESC
-                LIMIT ? OFFSET ?
+                WHERE (created_at, id) < (?, ?)
+                ORDER BY created_at DESC, id DESC
+                LIMIT ?
                 """;
-        int offset = page * size;
-        return jdbcTemplate.query(query, new UserRowMapper(), size, offset);
+        return jdbcTemplate.query(query, new UserRowMapper(), after.sortKey(), after.id(), limit);
     }
 
     public List<Role> getUserRoles(Long id) {
@@ -174,6 +190,15 @@ public class UserDAO {
         return user;
     }
 
+    public int updatePasswordHash(Long id, String expectedHash, String newHash) {
+        String query = """
+                UPDATE users
+                SET password_hash = ?
+                WHERE id = ? AND password_hash = ?
+                """;
+        return jdbcTemplate.update(query, newHash, id, expectedHash);
+    }
+
     public void delete(Long id) {
         String query = "DELETE FROM users WHERE id = ?";
         jdbcTemplate.update(query, id);
@@ -0,0 +1,112 @@
+package com.example.ticketingsystem.repository;
+
+import com.example.ticketingsystem.mapper.WaitingRoomEntryRowMapper;
+import com.example.ticketingsystem.mapper.WaitingRoomRowMapper;
+import com.example.ticketingsystem.model.WaitingRoom;
+import com.example.ticketingsystem.model.WaitingRoomEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class WaitingRoomDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WaitingRoomDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public WaitingRoom open(Long eventId, int admissionsPerMinute) {
+        String query = """
+                INSERT INTO waiting_rooms (event_id, admissions_per_minute)
+                VALUES (?, ?)
+                ON CONFLICT (event_id) DO UPDATE
+                    SET admissions_per_minute = EXCLUDED.admissions_per_minute
+                RETURNING *
+                """;
+        return jdbcTemplate.queryForObject(query, new WaitingRoomRowMapper(), eventId, admissionsPerMinute);
+    }
+
+    public int close(Long eventId) {
+        String query = "DELETE FROM waiting_rooms WHERE event_id = ?";
+        return jdbcTemplate.update(query, eventId);
+    }
+
+    public Optional<WaitingRoom> findByEventId(Long eventId) {
+        String query = "SELECT * FROM waiting_rooms WHERE event_id = ?";
+        List<WaitingRoom> results = jdbcTemplate.query(query, new WaitingRoomRowMapper(), eventId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public List<WaitingRoom> findAll() {
+        String query = "SELECT * FROM waiting_rooms ORDER BY event_id";
+        return jdbcTemplate.query(query, new WaitingRoomRowMapper());
+    }
+
+    public List<WaitingRoom> findAllForUpdate() {
+        String query = "SELECT * FROM waiting_rooms ORDER BY event_id FOR UPDATE";
+        return jdbcTemplate.query(query, new WaitingRoomRowMapper());
+    }
+
+    public WaitingRoomEntry join(Long eventId, Long userId) {
+        String query = """
+                INSERT INTO waiting_room_entries (event_id, user_id)
+                VALUES (?, ?)
+                ON CONFLICT (event_id, user_id) DO NOTHING
+                """;
+        jdbcTemplate.update(query, eventId, userId);
+        return findEntry(eventId, userId).orElseThrow();
+    }
+
+    public Optional<WaitingRoomEntry> findEntry(Long eventId, Long userId) {
+        String query = "SELECT * FROM waiting_room_entries WHERE event_id = ? AND user_id = ?";
+        List<WaitingRoomEntry> results = jdbcTemplate.query(query, new WaitingRoomEntryRowMapper(), eventId, userId);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.getFirst());
+    }
+
+    public int deleteEntry(Long entryId) {
+        String query = "DELETE FROM waiting_room_entries WHERE id = ?";
+        return jdbcTemplate.update(query, entryId);
+    }
+
+    public int markUsed(Long eventId, Long userId) {
+        String query = """
+                UPDATE waiting_room_entries
+                SET used_at = CURRENT_TIMESTAMP
+                WHERE event_id = ? AND user_id = ? AND admitted_at IS NOT NULL AND used_at IS NULL
+                """;
+        return jdbcTemplate.update(query, eventId, userId);
+    }
+
+    public long countAhead(Long eventId, Long entryId) {
+        String query = """
+                SELECT COUNT(*)
+                FROM waiting_room_entries
+                WHERE event_id = ? AND admitted_at IS NULL AND id < ?
+                """;
+        Long count = jdbcTemplate.queryForObject(query, Long.class, eventId, entryId);
+        return count != null ? count : 0;
+    }
+
+    public int admitNext(Long eventId, int limit) {
+        String query = """
+                UPDATE waiting_room_entries
+                SET admitted_at = CURRENT_TIMESTAMP
+                WHERE id IN (SELECT id
+                             FROM waiting_room_entries
+                             WHERE event_id = ? AND admitted_at IS NULL
+                             ORDER BY id
+                             LIMIT ?)
+                """;
+        return jdbcTemplate.update(query, eventId, limit);
+    }
+
+    public int updateLastAdmissionAt(Long eventId, LocalDateTime lastAdmissionAt) {
+        String query = "UPDATE waiting_rooms SET last_admission_at = ? WHERE event_id = ?";
+        return jdbcTemplate.update(query, lastAdmissionAt, eventId);
+    }
+}
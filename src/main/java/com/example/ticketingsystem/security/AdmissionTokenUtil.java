@@ -0,0 +1,62 @@
+package com.example.ticketingsystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+@Component
+public class AdmissionTokenUtil {
+
+    private static final String AUDIENCE = "waiting-room";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public AdmissionTokenUtil(@Value("${JWT_SECRET}") String secret) {
+        // Отдельный ключ: токен допуска не должен приниматься JwtAuthenticationFilter как токен входа
+        this.signingKey = Keys.hmacShaKeyFor(sha256("admission:" + secret));
+        this.parser = Jwts.parser().verifyWith(signingKey).requireAudience(AUDIENCE).build();
+    }
+
+    public String generateToken(Long eventId, Long userId, Instant expiresAt) {
+        return Jwts.builder()
+                .subject(String.valueOf(userId))
+                .audience().add(AUDIENCE).and()
+                .claim("eventId", eventId)
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public Optional<Admission> verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return Optional.of(new Admission(claims.get("eventId", Long.class), Long.valueOf(claims.getSubject())));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Admission(Long eventId, Long userId) {}
+}
@@ -1,27 +1,49 @@
 package com.example.ticketingsystem.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
-    @Value("${JWT_SECRET}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final Cache<String, Claims> verifiedClaims;
 
-    @Value("${JWT_EXPIRATION}")
-    private Long expiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(@Value("${JWT_SECRET}") String secret,
+                   @Value("${JWT_EXPIRATION}") Long expiration,
+                   @Value("${app.security.jwt.claims-cache-size:10000}") long claimsCacheSize,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expiration = expiration;
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(Expiry.creating((String tokenHash, Claims claims) -> untilExpiration(claims)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
     }
 
     public String generateToken(String username, List<String> roles) {
@@ -30,33 +52,59 @@ public class JwtUtil {
                 .claim("roles", roles)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    public Optional<Claims> verify(String token) {
+        String tokenHash = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(tokenHash);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        verifiedClaims.put(tokenHash, claims);
+        return Optional.of(claims);
+    }
+
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return verify(token).map(Claims::getSubject).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        return extractClaims(token).get("roles", List.class);
+        return verify(token).map(JwtUtil::roles).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public boolean validateToken(String token) {
-        try {
-            extractClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return verify(token).isPresent();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<String> roles(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return roles == null ? List.of() : roles;
+    }
+
+    private static Duration untilExpiration(Claims claims) {
+        // Токен без exp не кешируем надолго - проверим подпись снова через минуту
+        if (claims.getExpiration() == null) {
+            return Duration.ofMinutes(1);
         }
+        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(remaining, 0));
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
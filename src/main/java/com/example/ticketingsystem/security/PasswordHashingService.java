@@ -0,0 +1,100 @@
+package com.example.ticketingsystem.security;
+
+import com.example.ticketingsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final Executor callbackExecutor;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final int strength;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("applicationTaskExecutor") Executor callbackExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.security.bcrypt.strength:10}") int strength,
+                                  @Value("${app.security.password-hashing.threads:0}") int threads,
+                                  @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.callbackExecutor = callbackExecutor;
+        this.meterRegistry = meterRegistry;
+        this.strength = strength;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // BCrypt упирается в CPU: по умолчанию по потоку на ядро, остальные ждут в ограниченной очереди
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", hashingExecutor, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", hashingExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        return submit("matches", () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    public boolean needsRehash(String passwordHash) {
+        Matcher matcher = BCRYPT_COST.matcher(passwordHash);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder("password.hashing.duration")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        CompletableFuture<T> hashed;
+        try {
+            hashed = CompletableFuture.supplyAsync(() -> timer.record(task), hashingExecutor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many authentication requests, please retry later",
+                    retryAfterSeconds);
+        }
+        // Продолжение (запросы к БД, выпуск токена) не должно занимать потоки хеширования
+        return hashed.thenApplyAsync(Function.identity(), callbackExecutor);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ticketingsystem.security;
+
+import com.example.ticketingsystem.exception.GlobalExceptionHandler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Rule> rules;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets,
+                           @Value("${app.rate-limit.idle-eviction-ms:600000}") long idleEvictionMs,
+                           @Value("${app.rate-limit.auth.capacity:10}") int authCapacity,
+                           @Value("${app.rate-limit.auth.refill-per-minute:20}") int authRefillPerMinute,
+                           @Value("${app.rate-limit.orders.capacity:10}") int ordersCapacity,
+                           @Value("${app.rate-limit.orders.refill-per-minute:60}") int ordersRefillPerMinute,
+                           @Value("${app.rate-limit.check-in.capacity:500}") int checkInCapacity,
+                           @Value("${app.rate-limit.check-in.refill-per-minute:30000}") int checkInRefillPerMinute,
+                           @Value("${app.rate-limit.api.capacity:200}") int apiCapacity,
+                           @Value("${app.rate-limit.api.refill-per-minute:1200}") int apiRefillPerMinute) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        PathPatternRequestMatcher.Builder matchers = PathPatternRequestMatcher.withDefaults();
+        // Первое совпавшее правило; вход и регистрация считаются по IP - до них пользователя еще нет
+        this.rules = List.of(
+                new Rule("auth", matchers.matcher(HttpMethod.POST, "/api/auth/**"), false, authCapacity, authRefillPerMinute),
+                new Rule("orders", matchers.matcher(HttpMethod.POST, "/api/orders/**"), true, ordersCapacity, ordersRefillPerMinute),
+                // Все турникеты обычно работают под одной учетной записью персонала
+                new Rule("check-in", matchers.matcher(HttpMethod.POST, "/api/check-in/*/scan"), true, checkInCapacity, checkInRefillPerMinute),
+                new Rule("api", matchers.matcher("/api/**"), true, apiCapacity, apiRefillPerMinute)
+        );
+        // Простаивающие корзины все равно полные - после вытеснения клиент получает такую же новую
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMillis(idleEvictionMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Rule rule = findRule(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        BucketKey key = new BucketKey(rule.name(), clientKey(request, rule));
+        long waitNanos = buckets.get(key, k -> new TokenBucket(rule.capacity(), rule.refillPerMinute(), now))
+                .tryAcquire(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Counter.builder("http.rate-limited").tag("rule", rule.name()).register(meterRegistry).increment();
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests, please retry later",
+                null,
+                LocalDateTime.now()
+        ));
+    }
+
+    // Retry-After в целых секундах с округлением вверх: клиент, выждавший его, токен уже получит
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    private Rule findRule(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matcher().matches(request)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request, Rule rule) {
+        if (rule.perPrincipal()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        // За доверенным прокси адрес клиента из X-Forwarded-For подставляет RemoteIpValve (server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record Rule(String name, RequestMatcher matcher, boolean perPrincipal, int capacity, int refillPerMinute) {}
+
+    private record BucketKey(String rule, String client) {}
+}
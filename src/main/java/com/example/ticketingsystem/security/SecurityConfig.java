@@ -1,5 +1,7 @@
 package com.example.ticketingsystem.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -19,9 +21,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -32,6 +36,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/events/*/cancellation").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
                         .requestMatchers(HttpMethod.GET, "/api/events/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/venues/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/organizers/**").permitAll()
@@ -49,9 +54,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PATCH, "/api/events/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
                         .requestMatchers(HttpMethod.DELETE, "/api/events/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
 
+                        // Открытие очереди ожидания - ORGANIZER и ADMIN, встать в очередь может любой вошедший
+                        .requestMatchers(HttpMethod.PUT, "/api/waiting-room/*").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
+
+                        // Сканирование билетов на входе - ORGANIZER и ADMIN
+                        .requestMatchers("/api/check-in/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
+
                         // Остальные DELETE - ORGANIZER и ADMIN
                         .requestMatchers(HttpMethod.DELETE, "/api/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
 
+                        // Выгрузки отдают данные всех пользователей
+                        .requestMatchers(HttpMethod.GET, "/api/orders/export").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/statistics/event-sales/export").hasAnyAuthority("ROLE_ADMIN", "ROLE_ORGANIZER")
+
                         .requestMatchers("/api/orders/**").authenticated()
                         .requestMatchers("/api/tickets/**").authenticated()
                         .requestMatchers("/api/payments/**").authenticated()
@@ -60,13 +75,23 @@ public class SecurityConfig {
 
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // После JWT-фильтра: корзина берется по пользователю, а не только по IP
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // Иначе Boot зарегистрирует фильтр еще и в контейнере, до security-цепочки, где пользователь еще неизвестен
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
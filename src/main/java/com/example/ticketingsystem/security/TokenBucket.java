@@ -0,0 +1,33 @@
+package com.example.ticketingsystem.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket в форме GCRA: вместо счетчика токенов хранится одно "теоретическое время прихода",
+// поэтому пополнение и списание - один CAS без блокировок и без фонового таймера
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.intervalNanos = 60_000_000_000L / refillPerMinute;
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // 0 - токен выдан, иначе сколько наносекунд ждать до следующего
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+            long overflow = next - nowNanos - burstNanos;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.ticketingsystem.service;
+
+public interface CacheInvalidationHandler {
+
+    void evict(String entity, long id);
+
+    void evictAll();
+}
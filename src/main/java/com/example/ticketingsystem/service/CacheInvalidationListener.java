@@ -0,0 +1,154 @@
+package com.example.ticketingsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+    private static final String CHANNEL = "cache_invalidation";
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final List<CacheInvalidationHandler> handlers;
+    private final Counter received;
+    private final Counter resyncs;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public CacheInvalidationListener(List<CacheInvalidationHandler> handlers, MeterRegistry meterRegistry) {
+        this.handlers = handlers;
+        this.received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        this.resyncs = Counter.builder("cache.invalidation.resyncs").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || handlers.isEmpty()) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(pollTimeoutMs);
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 500;
+        boolean connectedBefore = false;
+
+        while (running) {
+            // Отдельное соединение мимо пула: LISTEN держит его все время жизни узла
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Пока соединения не было, уведомления терялись - кэш мог устареть на любой записи
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+                backoffMs = 500;
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null || notifications.length == 0) {
+                        try (Statement ping = connection.createStatement()) {
+                            ping.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {} ms: {}",
+                        backoffMs, e.getMessage());
+                if (!sleep(backoffMs)) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        received.increment();
+        int separator = payload.lastIndexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+        String entity = payload.substring(0, separator);
+        long id;
+        try {
+            id = Long.parseLong(payload.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+            return;
+        }
+        for (CacheInvalidationHandler handler : handlers) {
+            handler.evict(entity, id);
+        }
+    }
+
+    private void resync() {
+        resyncs.increment();
+        log.info("Reconnected to cache invalidation channel, evicting all local caches");
+        handlers.forEach(CacheInvalidationHandler::evictAll);
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.model.Event;
+import com.example.ticketingsystem.model.TicketCategory;
+import com.example.ticketingsystem.repository.EventDAO;
+import com.example.ticketingsystem.repository.TicketCategoryDAO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class CatalogCache implements CacheInvalidationHandler {
+
+    private static final String PUBLISHED = "published";
+
+    private final EventDAO eventDAO;
+    private final TicketCategoryDAO ticketCategoryDAO;
+    private final boolean enabled;
+    private final Cache<Long, Optional<Event>> eventsById;
+    private final Cache<String, List<Event>> eventsByStatus;
+    private final Cache<Long, List<TicketCategory>> categoriesByEvent;
+
+    public CatalogCache(EventDAO eventDAO, TicketCategoryDAO ticketCategoryDAO, MeterRegistry meterRegistry,
+                        @Value("${app.catalog.cache.enabled:true}") boolean enabled,
+                        @Value("${app.catalog.cache.max-events:10000}") long maxEvents,
+                        @Value("${app.catalog.cache.event-ttl-ms:60000}") long eventTtlMs,
+                        @Value("${app.catalog.cache.category-max-staleness-ms:5000}") long categoryMaxStalenessMs) {
+        this.eventDAO = eventDAO;
+        this.ticketCategoryDAO = ticketCategoryDAO;
+        this.enabled = enabled;
+        this.eventsById = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(Duration.ofMillis(eventTtlMs))
+                .recordStats()
+                .build();
+        this.eventsByStatus = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(eventTtlMs))
+                .recordStats()
+                .build();
+        // quantity_available меняется с каждым заказом - инвалидировать на каждой продаже дорого,
+        // поэтому остатки ограничены по давности записи, а не по событиям
+        this.categoriesByEvent = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(Duration.ofMillis(categoryMaxStalenessMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsById, "catalog.events");
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsByStatus, "catalog.published-events");
+        CaffeineCacheMetrics.monitor(meterRegistry, categoriesByEvent, "catalog.ticket-categories");
+    }
+
+    public Optional<Event> getEvent(Long eventId) {
+        if (!enabled) {
+            return eventDAO.getEventById(eventId);
+        }
+        // Как и у категорий, загрузка идет через get: вытеснение дождется ее, а не проиграет гонку put
+        return eventsById.get(eventId, eventDAO::getEventById);
+    }
+
+    public List<Event> getPublishedEvents() {
+        if (!enabled) {
+            return eventDAO.getEventsByStatus(PUBLISHED);
+        }
+        return eventsByStatus.get(PUBLISHED, status -> List.copyOf(eventDAO.getEventsByStatus(status)));
+    }
+
+    public List<TicketCategory> getCategories(Long eventId) {
+        if (!enabled) {
+            return ticketCategoryDAO.findByEventId(eventId);
+        }
+        return categoriesByEvent.get(eventId, id -> List.copyOf(ticketCategoryDAO.findByEventId(id)));
+    }
+
+    public void invalidateEvent(Long eventId) {
+        invalidateAroundCommit(() -> {
+            eventsById.invalidate(eventId);
+            eventsByStatus.invalidateAll();
+            categoriesByEvent.invalidate(eventId);
+        });
+    }
+
+    public void invalidateCategories(Long eventId) {
+        invalidateAroundCommit(() -> categoriesByEvent.invalidate(eventId));
+    }
+
+    @Override
+    public void evict(String entity, long id) {
+        switch (entity) {
+            case "events" -> {
+                eventsById.invalidate(id);
+                eventsByStatus.invalidateAll();
+                categoriesByEvent.invalidate(id);
+            }
+            case "categories" -> categoriesByEvent.invalidate(id);
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        eventsById.invalidateAll();
+        eventsByStatus.invalidateAll();
+        categoriesByEvent.invalidateAll();
+    }
+
+    private void invalidateAroundCommit(Runnable invalidation) {
+        invalidation.run();
+        // Повторяем после коммита: иначе параллельное чтение успеет положить в кэш старую строку до коммита
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
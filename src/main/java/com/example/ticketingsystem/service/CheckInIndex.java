@@ -0,0 +1,149 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.TicketGateEntry;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.ToLongFunction;
+
+// Коды билетов одного мероприятия: отсортированные 64-битные отпечатки + параллельные массивы id и состояний.
+// Отпечаток - HMAC со случайным ключом индекса, подобрать чужой код под известный отпечаток нельзя.
+// Состояние здесь - только копия базы для быстрого отказа: проход отмечает UPDATE в базе, а не индекс
+final class CheckInIndex {
+
+    // Состояния упорядочены: меняются только вверх, поэтому обновление - атомарный max
+    static final int ACTIVE = 0;
+    static final int CHECKED_IN = 1;
+    static final int VOID = 2;
+    // Совпадение отпечатков двух кодов - такие билеты проверяются через базу
+    static final int AMBIGUOUS = 3;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ToLongFunction<String> fingerprinter;
+    private final long[] fingerprints;
+    private final long[] ticketIds;
+    private final AtomicIntegerArray states;
+    // id билетов по возрастанию и их позиции - для отмен, которые приходят по id
+    private final long[] sortedTicketIds;
+    private final int[] positionsById;
+
+    private CheckInIndex(ToLongFunction<String> fingerprinter, long[] fingerprints, long[] ticketIds, int[] states) {
+        this.fingerprinter = fingerprinter;
+        this.fingerprints = fingerprints;
+        this.ticketIds = ticketIds;
+        this.states = new AtomicIntegerArray(states);
+
+        Integer[] order = new Integer[ticketIds.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong(position -> ticketIds[position]));
+        this.sortedTicketIds = new long[order.length];
+        this.positionsById = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedTicketIds[i] = ticketIds[order[i]];
+            positionsById[i] = order[i];
+        }
+    }
+
+    static CheckInIndex build(List<TicketGateEntry> entries) {
+        byte[] keyBytes = new byte[32];
+        RANDOM.nextBytes(keyBytes);
+        Mac mac = newMac(new SecretKeySpec(keyBytes, "HmacSHA256"));
+        return build(entries, ticketCode -> fingerprint(copyMac(mac), ticketCode));
+    }
+
+    static CheckInIndex build(List<TicketGateEntry> entries, ToLongFunction<String> fingerprinter) {
+        int size = entries.size();
+        long[][] rows = new long[size][];
+        for (int i = 0; i < size; i++) {
+            TicketGateEntry entry = entries.get(i);
+            rows[i] = new long[]{fingerprinter.applyAsLong(entry.ticketCode()), entry.ticketId(), state(entry.status())};
+        }
+        Arrays.sort(rows, Comparator.comparingLong(row -> row[0]));
+
+        long[] fingerprints = new long[size];
+        long[] ticketIds = new long[size];
+        int[] states = new int[size];
+        for (int i = 0; i < size; i++) {
+            fingerprints[i] = rows[i][0];
+            ticketIds[i] = rows[i][1];
+            states[i] = (int) rows[i][2];
+            if (i > 0 && fingerprints[i] == fingerprints[i - 1]) {
+                states[i] = AMBIGUOUS;
+                states[i - 1] = AMBIGUOUS;
+            }
+        }
+        return new CheckInIndex(fingerprinter, fingerprints, ticketIds, states);
+    }
+
+    int size() {
+        return fingerprints.length;
+    }
+
+    int find(String ticketCode) {
+        return Arrays.binarySearch(fingerprints, fingerprinter.applyAsLong(ticketCode));
+    }
+
+    long ticketId(int position) {
+        return ticketIds[position];
+    }
+
+    int state(int position) {
+        return states.get(position);
+    }
+
+    // Переносит в индекс статус, который вернула база; неоднозначные позиции так и остаются за базой
+    void update(int position, String status) {
+        states.accumulateAndGet(position, state(status), Math::max);
+    }
+
+    // Отмена билета на любом узле; false, если билета в индексе нет
+    boolean revoke(long ticketId) {
+        int found = Arrays.binarySearch(sortedTicketIds, ticketId);
+        if (found < 0) {
+            return false;
+        }
+        states.accumulateAndGet(positionsById[found], VOID, Math::max);
+        return true;
+    }
+
+    private static int state(String status) {
+        return switch (status) {
+            case "active" -> ACTIVE;
+            case "checked_in" -> CHECKED_IN;
+            default -> VOID;
+        };
+    }
+
+    private static long fingerprint(Mac mac, String ticketCode) {
+        byte[] digest = mac.doFinal(ticketCode.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    // Mac не потокобезопасен, а клон инициализированного дешевле нового getInstance + init
+    private static Mac copyMac(Mac mac) {
+        try {
+            return (Mac) mac.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 implementation is not cloneable", e);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
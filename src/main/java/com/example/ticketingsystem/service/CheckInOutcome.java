@@ -0,0 +1,8 @@
+package com.example.ticketingsystem.service;
+
+public enum CheckInOutcome {
+    ADMITTED,
+    ALREADY_CHECKED_IN,
+    NOT_VALID,
+    UNKNOWN_TICKET
+}
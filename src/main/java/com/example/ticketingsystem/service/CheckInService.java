@@ -0,0 +1,131 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.dto.response.CheckInResponse;
+import com.example.ticketingsystem.exception.ResourceNotFoundException;
+import com.example.ticketingsystem.repository.TicketDAO;
+import com.example.ticketingsystem.repository.TicketGateEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Проход отмечается условным UPDATE в базе, поэтому билет пропускается ровно один раз, через какой бы узел
+// ни шло сканирование. Индекс в памяти отсекает повторы и недействительные билеты без похода в базу,
+// а отмены с других узлов получает через канал cache_invalidation
+@Service
+public class CheckInService implements CacheInvalidationHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInService.class);
+
+    private final TicketDAO ticketDAO;
+    private final CatalogCache catalogCache;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final Map<Long, CheckInIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<CheckInOutcome, Counter> scans = new EnumMap<>(CheckInOutcome.class);
+
+    @Value("${app.check-in.fetch-size:5000}")
+    private int fetchSize;
+
+    public CheckInService(TicketDAO ticketDAO, CatalogCache catalogCache,
+                          RetryingTransactionExecutor transactionExecutor, MeterRegistry meterRegistry) {
+        this.ticketDAO = ticketDAO;
+        this.catalogCache = catalogCache;
+        this.transactionExecutor = transactionExecutor;
+        for (CheckInOutcome outcome : CheckInOutcome.values()) {
+            scans.put(outcome, Counter.builder("check-in.scans").tag("outcome", outcome.name()).register(meterRegistry));
+        }
+    }
+
+    public int load(Long eventId) {
+        catalogCache.getEvent(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+
+        List<TicketGateEntry> entries = new ArrayList<>();
+        transactionExecutor.run("loadCheckInIndex",
+                () -> ticketDAO.streamGateEntriesByEventId(eventId, fetchSize, entries::add));
+        CheckInIndex index = CheckInIndex.build(entries);
+        indexes.put(eventId, index);
+
+        log.info("Loaded check-in index for event {} with {} tickets", eventId, index.size());
+        return index.size();
+    }
+
+    public void unload(Long eventId) {
+        if (indexes.remove(eventId) == null) {
+            throw new ResourceNotFoundException("Check-in index for event", eventId);
+        }
+        log.info("Unloaded check-in index for event {}", eventId);
+    }
+
+    public CheckInResponse scan(Long eventId, String ticketCode) {
+        CheckInIndex index = indexes.get(eventId);
+        int position = index != null ? index.find(ticketCode) : -1;
+        if (position < 0) {
+            // Индекс не загружен или билет куплен после загрузки
+            return scanFromDatabase(eventId, ticketCode);
+        }
+
+        long ticketId = index.ticketId(position);
+        return switch (index.state(position)) {
+            case CheckInIndex.ACTIVE -> result(ticketCode, ticketId, checkIn(ticketId, index, position));
+            case CheckInIndex.CHECKED_IN -> result(ticketCode, ticketId, CheckInOutcome.ALREADY_CHECKED_IN);
+            case CheckInIndex.VOID -> result(ticketCode, ticketId, CheckInOutcome.NOT_VALID);
+            // Отпечаток совпал у двух кодов - какой из билетов предъявлен, знает только база
+            default -> scanFromDatabase(eventId, ticketCode);
+        };
+    }
+
+    @Override
+    public void evict(String entity, long id) {
+        if ("tickets".equals(entity)) {
+            indexes.values().forEach(index -> index.revoke(id));
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        // Пропущенная отмена не пропустит билет - UPDATE в базе его не отметит, а индекс поправится по ответу
+    }
+
+    private CheckInOutcome checkIn(long ticketId, CheckInIndex index, int position) {
+        if (ticketDAO.checkIn(ticketId) > 0) {
+            index.update(position, "checked_in");
+            return CheckInOutcome.ADMITTED;
+        }
+        // Билет прошел через другой узел или отменен - узнаем, что именно, и запоминаем
+        String status = ticketDAO.findStatusById(ticketId).orElse("cancelled");
+        index.update(position, status);
+        return outcome(status);
+    }
+
+    private CheckInResponse scanFromDatabase(Long eventId, String ticketCode) {
+        Optional<TicketGateEntry> entry = ticketDAO.findGateEntryByTicketCode(ticketCode)
+                .filter(it -> eventId.equals(it.eventId()));
+        if (entry.isEmpty()) {
+            return result(ticketCode, null, CheckInOutcome.UNKNOWN_TICKET);
+        }
+
+        Long ticketId = entry.get().ticketId();
+        CheckInOutcome outcome = "active".equals(entry.get().status())
+                ? ticketDAO.checkIn(ticketId) > 0 ? CheckInOutcome.ADMITTED : CheckInOutcome.ALREADY_CHECKED_IN
+                : outcome(entry.get().status());
+        return result(ticketCode, ticketId, outcome);
+    }
+
+    private static CheckInOutcome outcome(String status) {
+        return switch (status) {
+            case "checked_in" -> CheckInOutcome.ALREADY_CHECKED_IN;
+            default -> CheckInOutcome.NOT_VALID;
+        };
+    }
+
+    private CheckInResponse result(String ticketCode, Long ticketId, CheckInOutcome outcome) {
+        scans.get(outcome).increment();
+        return new CheckInResponse(ticketCode, ticketId, outcome);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.exception.ResourceNotFoundException;
+import com.example.ticketingsystem.model.EventCancellation;
+import com.example.ticketingsystem.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class EventCancellationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCancellationService.class);
+    private static final String LOCK_PREFIX = "event-cancellation:";
+
+    private final EventDAO eventDAO;
+    private final OrderDAO orderDAO;
+    private final TicketDAO ticketDAO;
+    private final TicketCategoryDAO ticketCategoryDAO;
+    private final PromoCodeUsageDAO promoCodeUsageDAO;
+    private final PaymentDAO paymentDAO;
+    private final EventCancellationDAO eventCancellationDAO;
+    private final AdvisoryLockDAO advisoryLockDAO;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final CatalogCache catalogCache;
+
+    @Value("${app.events.cancellation.chunk-size:500}")
+    private int chunkSize;
+
+    public EventCancellationService(EventDAO eventDAO, OrderDAO orderDAO, TicketDAO ticketDAO,
+                                    TicketCategoryDAO ticketCategoryDAO, PromoCodeUsageDAO promoCodeUsageDAO,
+                                    PaymentDAO paymentDAO, EventCancellationDAO eventCancellationDAO,
+                                    AdvisoryLockDAO advisoryLockDAO, RetryingTransactionExecutor transactionExecutor,
+                                    CatalogCache catalogCache) {
+        this.eventDAO = eventDAO;
+        this.orderDAO = orderDAO;
+        this.ticketDAO = ticketDAO;
+        this.ticketCategoryDAO = ticketCategoryDAO;
+        this.promoCodeUsageDAO = promoCodeUsageDAO;
+        this.paymentDAO = paymentDAO;
+        this.eventCancellationDAO = eventCancellationDAO;
+        this.advisoryLockDAO = advisoryLockDAO;
+        this.transactionExecutor = transactionExecutor;
+        this.catalogCache = catalogCache;
+    }
+
+    public EventCancellation cancelEvent(Long eventId) {
+        EventCancellation started = transactionExecutor.execute("startEventCancellation", () -> start(eventId));
+        catalogCache.invalidateEvent(eventId);
+        log.info("Cancelling event {} with {} pending orders in chunks of {}",
+                eventId, started.getTotalOrders(), chunkSize);
+
+        return resume(eventId);
+    }
+
+    private EventCancellation start(Long eventId) {
+        // Блокировка строки мероприятия дожидается заказов и оплат, уже проверивших его статус,
+        // а после смены статуса на cancelling новые не пройдут - проверка подтвержденных заказов окончательная
+        eventDAO.findStatusForUpdate(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+
+        int confirmedOrders = eventDAO.countConfirmedOrdersByEventId(eventId);
+        if (confirmedOrders > 0) {
+            throw new IllegalStateException(
+                    "Cannot cancel event with confirmed orders. Please process refunds first. Affected orders: " + confirmedOrders
+            );
+        }
+
+        eventDAO.updateEventStatus(eventId, "cancelling");
+        int pendingOrders = orderDAO.countByEventIdAndStatus(eventId, "pending");
+        return eventCancellationDAO.start(eventId, pendingOrders);
+    }
+
+    public Optional<EventCancellation> getProgress(Long eventId) {
+        return eventCancellationDAO.findByEventId(eventId);
+    }
+
+    @Scheduled(initialDelayString = "${app.events.cancellation.resume-initial-delay-ms:30000}",
+            fixedDelayString = "${app.events.cancellation.resume-interval-ms:60000}")
+    public void resumeInterrupted() {
+        for (Long eventId : eventCancellationDAO.findRunningEventIds()) {
+            try {
+                resume(eventId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to resume cancellation of event {}, will retry on next run", eventId, e);
+            }
+        }
+    }
+
+    private EventCancellation resume(Long eventId) {
+        while (true) {
+            Chunk chunk = transactionExecutor.execute("cancelEventChunk", () -> cancelChunk(eventId));
+
+            if (!chunk.locked()) {
+                log.debug("Cancellation of event {} is running on another node, skipping", eventId);
+                return eventCancellationDAO.findByEventId(eventId).orElseThrow();
+            }
+            if (chunk.finished()) {
+                catalogCache.invalidateEvent(eventId);
+                log.info("Event {} cancelled, {} pending orders cancelled",
+                        eventId, chunk.progress().getCancelledOrders());
+                return chunk.progress();
+            }
+            log.info("Event {} cancellation progress: {}/{} pending orders cancelled",
+                    eventId, chunk.progress().getCancelledOrders(), chunk.progress().getTotalOrders());
+        }
+    }
+
+    private Chunk cancelChunk(Long eventId) {
+        if (!advisoryLockDAO.tryTransactionLock(LOCK_PREFIX + eventId)) {
+            return new Chunk(false, false, null);
+        }
+
+        EventCancellation checkpoint = eventCancellationDAO.findByEventIdForUpdate(eventId)
+                .orElseThrow(() -> new IllegalStateException("Cancellation of event " + eventId + " was not started"));
+        if (!"running".equals(checkpoint.getStatus())) {
+            return new Chunk(true, true, checkpoint);
+        }
+
+        List<Long> orderIds = orderDAO.lockPendingIdsByEventId(eventId, checkpoint.getLastOrderId(), chunkSize);
+        if (orderIds.isEmpty()) {
+            // Отмена, начатая до появления cancelling, застала мероприятие в продаже: сначала закрываем продажи,
+            // а заказы, успевшие появиться до этого, заберет следующий чанк
+            if ("published".equals(eventDAO.findStatusForUpdate(eventId).orElse(null))) {
+                eventDAO.updateEventStatus(eventId, "cancelling");
+                return new Chunk(true, false, checkpoint);
+            }
+            eventDAO.updateEventStatus(eventId, "cancelled");
+            eventCancellationDAO.complete(eventId);
+            checkpoint.setStatus("completed");
+            return new Chunk(true, true, checkpoint);
+        }
+
+        orderDAO.updateStatuses(orderIds, "cancelled");
+        ticketCategoryDAO.restoreQuantitiesForOrders(orderIds);
+        promoCodeUsageDAO.releaseForOrders(orderIds);
+        paymentDAO.failPendingByOrderIds(orderIds);
+        ticketDAO.updateStatusByOrderIds(orderIds, "cancelled");
+        eventCancellationDAO.advance(eventId, orderIds.getLast(), orderIds.size());
+
+        checkpoint.setLastOrderId(orderIds.getLast());
+        checkpoint.setCancelledOrders(checkpoint.getCancelledOrders() + orderIds.size());
+        return new Chunk(true, false, checkpoint);
+    }
+
+    private record Chunk(boolean locked, boolean finished, EventCancellation progress) {}
+}
@@ -2,10 +2,11 @@ package com.example.ticketingsystem.service;
 
 import com.example.ticketingsystem.exception.ResourceNotFoundException;
 import com.example.ticketingsystem.model.Event;
-import com.example.ticketingsystem.model.Order;
+import com.example.ticketingsystem.model.EventCancellation;
 import com.example.ticketingsystem.model.Ticket;
+import com.example.ticketingsystem.repository.CursorPage;
 import com.example.ticketingsystem.repository.EventDAO;
-import com.example.ticketingsystem.repository.OrderDAO;
+import com.example.ticketingsystem.repository.PageCursor;
 import com.example.ticketingsystem.repository.TicketDAO;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,15 +21,16 @@ public class EventService {
 
     private final EventDAO eventDAO;
     private final TicketDAO ticketDAO;
-    private final OrderDAO orderDAO;
-    private final OrderService orderService;
+    private final EventCancellationService eventCancellationService;
+    private final CatalogCache catalogCache;
 
-    public List<Event> getAllEvents(int page, int size) {
-        return eventDAO.getAllEvents(page, size);
+    public CursorPage<Event> getAllEvents(PageCursor after, int size) {
+        return CursorPage.of(eventDAO.getAllEvents(after, size + 1), size,
+                event -> new PageCursor(event.getStartDatetime(), event.getId()));
     }
 
     public Optional<Event> getEventById(Long id) {
-        return eventDAO.getEventById(id);
+        return catalogCache.getEvent(id);
     }
 
     public List<Event> getEventsByOrganizerId(Long organizerId) {
@@ -36,7 +38,7 @@ public class EventService {
     }
 
     public List<Event> getPublishedEvents() {
-        return eventDAO.getEventsByStatus("published");
+        return catalogCache.getPublishedEvents();
     }
 
     public Event createEvent(Event event) {
@@ -44,13 +46,20 @@ public class EventService {
             event.setEventStatus("draft");
         }
 
-        return eventDAO.createEvent(event);
+        Event created = eventDAO.createEvent(event);
+        catalogCache.invalidateEvent(created.getId());
+        return created;
     }
 
     public Event updateEvent(Long id, Event event) {
         Event existing = eventDAO.getEventById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Event", id));
 
+        // Статус из запроса перезаписал бы cancelling и вернул бы мероприятие в продажу посреди отмены
+        if ("cancelling".equals(existing.getEventStatus())) {
+            throw new IllegalStateException("Event is being cancelled");
+        }
+
         int confirmedOrders = eventDAO.countConfirmedOrdersByEventId(id);
 
         if (confirmedOrders > 0) {
@@ -63,31 +72,24 @@ public class EventService {
         }
 
         event.setId(id);
-        return eventDAO.updateEvent(event);
+        Event updated = eventDAO.updateEvent(event);
+        catalogCache.invalidateEvent(id);
+        return updated;
     }
 
     public void publishEvent(Long eventId) {
-        eventDAO.updateEventStatus(eventId, "published");
-    }
-
-    @Transactional
-    public void cancelEvent(Long eventId) {
-        eventDAO.getEventById(eventId)
-                .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
-
-        int confirmedOrders = eventDAO.countConfirmedOrdersByEventId(eventId);
-        if (confirmedOrders > 0) {
-            throw new IllegalStateException(
-                    "Cannot cancel event with confirmed orders. Please process refunds first. Affected orders: " + confirmedOrders
-            );
+        if (eventDAO.publishEvent(eventId) == 0 && eventDAO.getEventById(eventId).isPresent()) {
+            throw new IllegalStateException("Event is being cancelled");
         }
+        catalogCache.invalidateEvent(eventId);
+    }
 
-        List<Order> pendingOrders = orderDAO.findByEventIdAndStatus(eventId, "pending");
-        for (Order order : pendingOrders) {
-            orderService.cancelOrder(order.getId());
-        }
+    public EventCancellation cancelEvent(Long eventId) {
+        return eventCancellationService.cancelEvent(eventId);
+    }
 
-        eventDAO.updateEventStatus(eventId, "cancelled");
+    public Optional<EventCancellation> getCancellationProgress(Long eventId) {
+        return eventCancellationService.getProgress(eventId);
     }
 
     @Transactional
@@ -109,5 +111,6 @@ public class EventService {
         }
 
         eventDAO.deleteEvent(id);
+        catalogCache.invalidateEvent(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.dto.response.OrderResponse;
+import com.example.ticketingsystem.model.EventSalesView;
+import com.example.ticketingsystem.repository.OrderDAO;
+import com.example.ticketingsystem.repository.StatisticsDAO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+public class ExportService {
+
+    private static final List<Column<OrderResponse>> ORDER_COLUMNS = List.of(
+            new Column<>("id", OrderResponse::getId),
+            new Column<>("order_number", OrderResponse::getOrderNumber),
+            new Column<>("user_id", OrderResponse::getUserId),
+            new Column<>("status", OrderResponse::getStatus),
+            new Column<>("total_amount", OrderResponse::getTotalAmount),
+            new Column<>("created_at", OrderResponse::getCreatedAt)
+    );
+
+    private static final List<Column<EventSalesView>> EVENT_SALES_COLUMNS = List.of(
+            new Column<>("event_id", EventSalesView::getEventId),
+            new Column<>("event_title", EventSalesView::getEventTitle),
+            new Column<>("category_id", EventSalesView::getCategoryId),
+            new Column<>("category_name", EventSalesView::getCategoryName),
+            new Column<>("tickets_sold", EventSalesView::getTicketsSold),
+            new Column<>("tickets_available", EventSalesView::getTicketsAvailable),
+            new Column<>("avg_ticket_price", EventSalesView::getAvgTicketPrice),
+            new Column<>("tickets_sold_last_7_days", EventSalesView::getTicketsSoldLast7Days),
+            new Column<>("sold_percentage", EventSalesView::getSoldPercentage),
+            new Column<>("revenue", EventSalesView::getRevenue)
+    );
+
+    private final OrderDAO orderDAO;
+    private final StatisticsDAO statisticsDAO;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.buffer-size:65536}")
+    private int bufferSize;
+
+    public ExportService(OrderDAO orderDAO, StatisticsDAO statisticsDAO, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.orderDAO = orderDAO;
+        this.statisticsDAO = statisticsDAO;
+        this.objectMapper = objectMapper;
+        // Курсор PostgreSQL с fetchSize работает только при выключенном autocommit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportOrders(String status, ExportFormat format, OutputStream out) throws IOException {
+        export(format, ORDER_COLUMNS, out,
+                sink -> orderDAO.streamAll(status, fetchSize, order -> sink.accept(new OrderResponse(order))));
+    }
+
+    public void exportEventSales(Long eventId, ExportFormat format, OutputStream out) throws IOException {
+        export(format, EVENT_SALES_COLUMNS, out,
+                sink -> statisticsDAO.streamEventSales(eventId, fetchSize, sink));
+    }
+
+    private <T> void export(ExportFormat format, List<Column<T>> columns, OutputStream out,
+                            Consumer<Consumer<T>> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", columns.stream().map(Column::header).toList()));
+            writer.write("\r\n");
+        }
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> source.accept(row -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, columns, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private <T> void writeCsvRow(Writer writer, List<Column<T>> columns, T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = columns.get(i).value().apply(row);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private String escapeCsv(String value) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private record Column<T>(String header, Function<T, Object> value) {}
+}
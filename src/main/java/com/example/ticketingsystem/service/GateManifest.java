@@ -0,0 +1,175 @@
+package com.example.ticketingsystem.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Манифест билетов для турникетов без связи. Формат big-endian, все секции выровнены по 8 байт,
+// поэтому сканер может отобразить файл в память и читать секции как массивы long:
+//
+//   0  int   magic "TKMF"          24 long  baseVersion (0 для полного)
+//   4  short formatVersion (1)     32 int   bloomWords
+//   6  short kind (0 полный,       36 int   bloomHashes
+//            1 дельта)             40 int   validCount
+//   8  long  eventId               44 int   revokedCount
+//  16  long  version
+//  48  long[bloomWords]   фильтр Блума по valid
+//      long[validCount]   отпечатки действующих билетов, по возрастанию (signed)
+//      long[revokedCount] отпечатки отмененных или уже прошедших билетов, по возрастанию (signed)
+//      long               CRC32C всех предыдущих байт
+//
+// Отпечаток - первые 8 байт SHA-256(eventId, 8 байт || код в UTF-8). Бит фильтра номер i из bloomHashes:
+// ((fp & 0xffffffff) + i * ((fp >>> 32) | 1)) mod (bloomWords * 64), бит b лежит в слове b / 64 под маской 1L << (b % 64).
+// Дельты применяются по возрастанию version: revoked удаляет отпечаток из набора, valid добавляет
+public final class GateManifest {
+
+    public static final int MAGIC = 0x544B4D46;
+    public static final short FORMAT_VERSION = 1;
+    public static final short KIND_FULL = 0;
+    public static final short KIND_DELTA = 1;
+
+    private final long eventId;
+    private final long version;
+    private final long baseVersion;
+    private final long[] bloom;
+    private final int bloomHashes;
+    private final long[] valid;
+    private final long[] revoked;
+
+    private GateManifest(long eventId, long version, long baseVersion, long[] bloom, int bloomHashes,
+                         long[] valid, long[] revoked) {
+        this.eventId = eventId;
+        this.version = version;
+        this.baseVersion = baseVersion;
+        this.bloom = bloom;
+        this.bloomHashes = bloomHashes;
+        this.valid = valid;
+        this.revoked = revoked;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDelta() {
+        return baseVersion != 0;
+    }
+
+    public int getValidCount() {
+        return valid.length;
+    }
+
+    public int getRevokedCount() {
+        return revoked.length;
+    }
+
+    public long getSizeBytes() {
+        return 48L + 8L * (bloom.length + valid.length + revoked.length) + 8;
+    }
+
+    public void writeTo(OutputStream target) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(target, 64 * 1024), new CRC32C());
+        DataOutputStream out = new DataOutputStream(checked);
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeShort(isDelta() ? KIND_DELTA : KIND_FULL);
+        out.writeLong(eventId);
+        out.writeLong(version);
+        out.writeLong(baseVersion);
+        out.writeInt(bloom.length);
+        out.writeInt(bloomHashes);
+        out.writeInt(valid.length);
+        out.writeInt(revoked.length);
+        writeLongs(out, bloom);
+        writeLongs(out, valid);
+        writeLongs(out, revoked);
+        out.writeLong(checked.getChecksum().getValue());
+        out.flush();
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    static Builder builder(long eventId, int bloomBitsPerTicket) {
+        return new Builder(eventId, bloomBitsPerTicket);
+    }
+
+    static final class Builder {
+
+        private final long eventId;
+        private final int bloomBitsPerTicket;
+        private final MessageDigest digest;
+        private final ByteBuffer prefix = ByteBuffer.allocate(Long.BYTES);
+        private long[] valid = new long[1024];
+        private int validCount;
+        private long[] revoked = new long[16];
+        private int revokedCount;
+
+        private Builder(long eventId, int bloomBitsPerTicket) {
+            this.eventId = eventId;
+            this.bloomBitsPerTicket = bloomBitsPerTicket;
+            this.prefix.putLong(0, eventId);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        void addValid(String ticketCode) {
+            if (validCount == valid.length) {
+                valid = Arrays.copyOf(valid, validCount * 2);
+            }
+            valid[validCount++] = fingerprint(ticketCode);
+        }
+
+        void addRevoked(String ticketCode) {
+            if (revokedCount == revoked.length) {
+                revoked = Arrays.copyOf(revoked, revokedCount * 2);
+            }
+            revoked[revokedCount++] = fingerprint(ticketCode);
+        }
+
+        GateManifest build(long version, long baseVersion) {
+            long[] sortedValid = Arrays.copyOf(valid, validCount);
+            long[] sortedRevoked = Arrays.copyOf(revoked, revokedCount);
+            Arrays.sort(sortedValid);
+            Arrays.sort(sortedRevoked);
+
+            // k = m/n * ln 2 дает минимум ложных срабатываний: при 10 битах на билет это 7 хэшей и ~0.8%
+            int bloomHashes = Math.clamp(Math.round(bloomBitsPerTicket * Math.log(2)), 1, 16);
+            long[] bloom = new long[(int) Math.max(1, ((long) validCount * bloomBitsPerTicket + 63) / 64)];
+            long bits = bloom.length * 64L;
+            for (long fingerprint : sortedValid) {
+                long low = fingerprint & 0xffffffffL;
+                long step = (fingerprint >>> 32) | 1;
+                for (int i = 0; i < bloomHashes; i++) {
+                    long bit = (low + i * step) % bits;
+                    bloom[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            return new GateManifest(eventId, version, baseVersion, bloom, bloomHashes, sortedValid, sortedRevoked);
+        }
+
+        private long fingerprint(String ticketCode) {
+            digest.update(prefix.array());
+            byte[] hash = digest.digest(ticketCode.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).getLong();
+        }
+    }
+}
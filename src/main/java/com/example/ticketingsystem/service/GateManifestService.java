@@ -0,0 +1,83 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.exception.ResourceNotFoundException;
+import com.example.ticketingsystem.repository.TicketDAO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Service
+public class GateManifestService {
+
+    private static final Logger log = LoggerFactory.getLogger(GateManifestService.class);
+
+    private final TicketDAO ticketDAO;
+    private final CatalogCache catalogCache;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final DistributionSummary manifestSize;
+
+    @Value("${app.check-in.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${app.check-in.manifest.bloom-bits-per-ticket:10}")
+    private int bloomBitsPerTicket;
+
+    // status_changed_at - время начала транзакции, а видна она становится только после коммита
+    @Value("${app.check-in.manifest.delta-overlap-ms:300000}")
+    private long deltaOverlapMs;
+
+    public GateManifestService(TicketDAO ticketDAO, CatalogCache catalogCache,
+                               RetryingTransactionExecutor transactionExecutor, MeterRegistry meterRegistry) {
+        this.ticketDAO = ticketDAO;
+        this.catalogCache = catalogCache;
+        this.transactionExecutor = transactionExecutor;
+        this.manifestSize = DistributionSummary.builder("check-in.manifest.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // since - version ранее полученного манифеста; без него строится полный манифест
+    public GateManifest build(Long eventId, Long since) {
+        catalogCache.getEvent(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+        if (since != null && since <= 0) {
+            throw new IllegalArgumentException("Manifest version must be positive");
+        }
+
+        GateManifest manifest = transactionExecutor.execute("buildGateManifest", () -> {
+            GateManifest.Builder builder = GateManifest.builder(eventId, bloomBitsPerTicket);
+            long version = toVersion(ticketDAO.currentTransactionTime());
+            // Изменения из окна перекрытия попадут в две дельты подряд - применять их повторно безопасно
+            LocalDateTime changedSince = since == null ? null : toTime(since - deltaOverlapMs);
+            ticketDAO.streamManifestEntriesByEventId(eventId, changedSince, fetchSize, entry -> {
+                if ("active".equals(entry.status())) {
+                    builder.addValid(entry.ticketCode());
+                } else {
+                    builder.addRevoked(entry.ticketCode());
+                }
+            });
+            return builder.build(version, since == null ? 0 : since);
+        });
+
+        manifestSize.record(manifest.getSizeBytes());
+        log.info("Built {} gate manifest for event {}: version {}, {} valid, {} revoked, {} bytes",
+                manifest.isDelta() ? "delta" : "full", eventId, manifest.getVersion(),
+                manifest.getValidCount(), manifest.getRevokedCount(), manifest.getSizeBytes());
+        return manifest;
+    }
+
+    private static long toVersion(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long version) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(version), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.InventorySlotDAO;
+import com.example.ticketingsystem.repository.TicketCategoryDAO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Service
+public class InventoryReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationService.class);
+
+    private final TicketCategoryDAO ticketCategoryDAO;
+    private final InventorySlotDAO inventorySlotDAO;
+    private final Map<Long, AtomicIntegerArray> stripesByCategory = new ConcurrentHashMap<>();
+
+    @Value("${app.inventory.reservation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.reservation.stripes:16}")
+    private int stripeCount;
+
+    @Value("${app.inventory.reservation.lease-size:50}")
+    private int leaseSize;
+
+    @Value("${app.inventory.reservation.idle-release-ms:60000}")
+    private long idleReleaseMs;
+
+    @Value("${app.inventory.reservation.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    public InventoryReservationService(TicketCategoryDAO ticketCategoryDAO, InventorySlotDAO inventorySlotDAO) {
+        this.ticketCategoryDAO = ticketCategoryDAO;
+        this.inventorySlotDAO = inventorySlotDAO;
+    }
+
+    public Optional<Long> reserveAll(SortedMap<Long, Integer> quantities) {
+        if (!enabled) {
+            Set<Long> reserved = new HashSet<>(ticketCategoryDAO.decreaseQuantities(quantities));
+            return quantities.keySet().stream()
+                    .filter(id -> !reserved.contains(id))
+                    .findFirst();
+        }
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!reserve(entry.getKey(), entry.getValue())) {
+                return Optional.of(entry.getKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean reserve(Long ticketCategoryId, int quantity) {
+        invalidateOnRollback(ticketCategoryId);
+        AtomicIntegerArray stripes = stripesByCategory.computeIfAbsent(ticketCategoryId, this::loadStripes);
+
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            int slot = (start + i) % stripeCount;
+            if (tryTake(stripes, slot, quantity)) {
+                if (inventorySlotDAO.consume(ticketCategoryId, nodeId, slot, quantity) > 0) {
+                    return true;
+                }
+                stripes.set(slot, 0);
+            }
+        }
+
+        Optional<Integer> leased = inventorySlotDAO.lease(ticketCategoryId, nodeId, start, Math.max(leaseSize, quantity));
+        if (leased.isEmpty() || leased.get() < quantity) {
+            // Остатки могли разойтись по слотам этого узла - собираем их обратно и пробуем еще раз
+            inventorySlotDAO.releaseCategorySlots(ticketCategoryId, nodeId);
+            stripesByCategory.remove(ticketCategoryId);
+            leased = inventorySlotDAO.lease(ticketCategoryId, nodeId, start, Math.max(leaseSize, quantity));
+            stripes = stripesByCategory.computeIfAbsent(ticketCategoryId, id -> new AtomicIntegerArray(stripeCount));
+        }
+        if (leased.isEmpty() || leased.get() < quantity) {
+            return false;
+        }
+
+        stripes.set(start, leased.get() - quantity);
+        return inventorySlotDAO.consume(ticketCategoryId, nodeId, start, quantity) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.flush-interval-ms:30000}")
+    public void releaseIdleSlots() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> released = inventorySlotDAO.releaseNodeSlots(nodeId, idleReleaseMs);
+        released.forEach(stripesByCategory::remove);
+
+        List<Long> reclaimed = inventorySlotDAO.releaseStaleSlots(staleAfterMs);
+        if (!reclaimed.isEmpty()) {
+            log.warn("Reclaimed stale inventory slots for {} ticket categories", reclaimed.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        List<Long> own = inventorySlotDAO.releaseNodeSlots(nodeId, 0);
+        List<Long> stale = inventorySlotDAO.releaseStaleSlots(staleAfterMs);
+        log.info("Inventory reconciliation for node {}: returned {} own and {} stale category leases",
+                nodeId, own.size(), stale.size());
+    }
+
+    @PreDestroy
+    public void releaseOnShutdown() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            inventorySlotDAO.releaseNodeSlots(nodeId, 0);
+        } catch (RuntimeException e) {
+            log.warn("Failed to return inventory slots on shutdown, they will be reclaimed on next startup", e);
+        }
+    }
+
+    private AtomicIntegerArray loadStripes(Long ticketCategoryId) {
+        AtomicIntegerArray stripes = new AtomicIntegerArray(stripeCount);
+        inventorySlotDAO.findSlots(ticketCategoryId, nodeId).forEach((slot, quantity) -> {
+            if (slot < stripeCount) {
+                stripes.set(slot, quantity);
+            }
+        });
+        return stripes;
+    }
+
+    private boolean tryTake(AtomicIntegerArray stripes, int slot, int quantity) {
+        while (true) {
+            int current = stripes.get(slot);
+            if (current < quantity) {
+                return false;
+            }
+            if (stripes.compareAndSet(slot, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private void invalidateOnRollback(Long ticketCategoryId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    stripesByCategory.remove(ticketCategoryId);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.model.Order;
+import com.example.ticketingsystem.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OrderExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryService.class);
+    private static final String LOCK_NAME = "order-expiry";
+
+    private final OrderDAO orderDAO;
+    private final TicketCategoryDAO ticketCategoryDAO;
+    private final PromoCodeUsageDAO promoCodeUsageDAO;
+    private final PaymentDAO paymentDAO;
+    private final AdvisoryLockDAO advisoryLockDAO;
+    private final RetryingTransactionExecutor transactionExecutor;
+
+    @Value("${app.orders.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.expiry.hold-ttl-ms:900000}")
+    private long holdTtlMs;
+
+    @Value("${app.orders.expiry.batch-size:500}")
+    private int batchSize;
+
+    public OrderExpiryService(OrderDAO orderDAO, TicketCategoryDAO ticketCategoryDAO,
+                              PromoCodeUsageDAO promoCodeUsageDAO, PaymentDAO paymentDAO, AdvisoryLockDAO advisoryLockDAO,
+                              RetryingTransactionExecutor transactionExecutor) {
+        this.orderDAO = orderDAO;
+        this.ticketCategoryDAO = ticketCategoryDAO;
+        this.promoCodeUsageDAO = promoCodeUsageDAO;
+        this.paymentDAO = paymentDAO;
+        this.advisoryLockDAO = advisoryLockDAO;
+        this.transactionExecutor = transactionExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval-ms:60000}")
+    public void expirePendingOrders() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime afterCreatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        Long afterId = 0L;
+        int expired = 0;
+
+        while (true) {
+            LocalDateTime cursorCreatedAt = afterCreatedAt;
+            Long cursorId = afterId;
+            ExpiryBatch batch = transactionExecutor.execute("expireOrders",
+                    () -> expireBatch(cursorCreatedAt, cursorId));
+
+            if (!batch.locked()) {
+                log.debug("Order expiry is running on another node, skipping");
+                break;
+            }
+            if (batch.orders().isEmpty()) {
+                break;
+            }
+
+            expired += batch.orders().size();
+            Order last = batch.orders().getLast();
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+
+            if (batch.orders().size() < batchSize) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            log.info("Expired {} pending orders older than {} ms", expired, holdTtlMs);
+        }
+    }
+
+    private ExpiryBatch expireBatch(LocalDateTime afterCreatedAt, Long afterId) {
+        if (!advisoryLockDAO.tryTransactionLock(LOCK_NAME)) {
+            return new ExpiryBatch(false, List.of());
+        }
+
+        List<Order> orders = orderDAO.lockExpiredPending(holdTtlMs, afterCreatedAt, afterId, batchSize);
+        if (orders.isEmpty()) {
+            return new ExpiryBatch(true, orders);
+        }
+
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        orderDAO.updateStatuses(orderIds, "expired");
+        ticketCategoryDAO.restoreQuantitiesForOrders(orderIds);
+        promoCodeUsageDAO.releaseForOrders(orderIds);
+        paymentDAO.failPendingByOrderIds(orderIds);
+
+        return new ExpiryBatch(true, orders);
+    }
+
+    private record ExpiryBatch(boolean locked, List<Order> orders) {}
+}
@@ -6,92 +6,99 @@ import com.example.ticketingsystem.model.*;
 import com.example.ticketingsystem.repository.*;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 @Service
 @AllArgsConstructor
 public class OrderService {
 
     private final OrderDAO orderDAO;
+    private final EventDAO eventDAO;
     private final OrderItemDAO orderItemDAO;
     private final PaymentDAO paymentDAO;
     private final TicketDAO ticketDAO;
     private final TicketCategoryDAO ticketCategoryDAO;
-    private final UserDAO userDAO;
-    private final PromoCodeDAO promoCodeDAO;
+    private final PromoCodeUsageDAO promoCodeUsageDAO;
+    private final SalesSummaryDAO salesSummaryDAO;
+    private final InventoryReservationService inventoryReservationService;
+    private final TicketCodeGenerator ticketCodeGenerator;
+    private final WaitingRoomService waitingRoomService;
+    private final RetryingTransactionExecutor transactionExecutor;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Order createOrder(Long userId, List<OrderItemRequest> items) {
-        userDAO.getUserById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
+        return createOrder(userId, items, Set.of());
+    }
+
+    public Order createOrder(Long userId, List<OrderItemRequest> items, Set<Long> admittedEventIds) {
+        return transactionExecutor.execute("createOrder", () -> doCreateOrder(userId, items, admittedEventIds));
+    }
+
+    private Order doCreateOrder(Long userId, List<OrderItemRequest> items, Set<Long> admittedEventIds) {
+        Set<Long> categoryIds = new HashSet<>();
+        items.forEach(item -> categoryIds.add(item.getTicketCategoryId()));
+        Map<Long, TicketCategory> categories = new HashMap<>();
+        ticketCategoryDAO.findByIds(categoryIds).forEach(category -> categories.put(category.getId(), category));
 
         BigDecimal totalAmount = BigDecimal.ZERO;
-        List<ValidatedOrderItem> validatedItems = new ArrayList<>();
+        List<OrderItem> orderItems = new ArrayList<>();
+        // TreeMap: списываем остатки в порядке id категорий, чтобы параллельные заказы не ловили дедлоки
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
 
         for (OrderItemRequest itemRequest : items) {
-            TicketCategory category = ticketCategoryDAO.findById(itemRequest.getTicketCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Ticket Category", itemRequest.getTicketCategoryId()));
+            TicketCategory category = categories.get(itemRequest.getTicketCategoryId());
+            if (category == null) {
+                throw new ResourceNotFoundException("Ticket Category", itemRequest.getTicketCategoryId());
+            }
 
             validateTicketPurchase(category, itemRequest.getQuantity());
 
-            int updatedRows = ticketCategoryDAO.decreaseQuantity(itemRequest.getTicketCategoryId(), itemRequest.getQuantity());
-            if (updatedRows == 0) {
-                throw new IllegalStateException("Not enough tickets available for category: " + category.getName());
-            }
-
             BigDecimal itemTotal = category.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
             totalAmount = totalAmount.add(itemTotal);
+            quantities.merge(category.getId(), itemRequest.getQuantity(), Integer::sum);
 
-            validatedItems.add(new ValidatedOrderItem(
-                    itemRequest.getTicketCategoryId(),
-                    itemRequest.getQuantity(),
-                    category.getPrice()
-            ));
+            OrderItem orderItem = new OrderItem();
+            orderItem.setTicketCategoryId(category.getId());
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setUnitPrice(category.getPrice());
+            orderItems.add(orderItem);
         }
 
+        Set<Long> eventIds = new HashSet<>();
+        categories.values().forEach(category -> eventIds.add(category.getEventId()));
+        requireOnSale(eventDAO.lockStatuses(eventIds));
+        waitingRoomService.useAdmissions(userId, admittedEventIds);
+
+        inventoryReservationService.reserveAll(quantities).ifPresent(categoryId -> {
+            throw new IllegalStateException("Not enough tickets available for category: "
+                    + categories.get(categoryId).getName());
+        });
+
         Order order = new Order();
         order.setOrderNumber(generateOrderNumber());
         order.setUserId(userId);
         order.setStatus("pending");
         order.setTotalAmount(totalAmount);
         order.setCreatedAt(LocalDateTime.now());
-        order = orderDAO.create(order);
-
-        for (ValidatedOrderItem validated : validatedItems) {
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrderId(order.getId());
-            orderItem.setTicketCategoryId(validated.ticketCategoryId());
-            orderItem.setQuantity(validated.quantity());
-            orderItem.setUnitPrice(validated.unitPrice());
-            orderItemDAO.create(orderItem);
-        }
-
-        Payment payment = new Payment();
-        payment.setOrderId(order.getId());
-        payment.setAmount(totalAmount);
-        payment.setStatus("pending");
-        paymentDAO.create(payment);
 
-        return order;
+        return orderDAO.createWithItemsAndPayment(order, orderItems)
+                .orElseThrow(() -> new ResourceNotFoundException("User", userId));
     }
 
-    private record ValidatedOrderItem(Long ticketCategoryId, Integer quantity, BigDecimal unitPrice) {}
-
-    @Transactional
     public Order processPayment(Long orderId, String externalPaymentId) {
-        Order order = orderDAO.findById(orderId)
+        return transactionExecutor.execute("processPayment", () -> doProcessPayment(orderId, externalPaymentId));
+    }
+
+    private Order doProcessPayment(Long orderId, String externalPaymentId) {
+        Order order = orderDAO.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
         if (!"pending".equals(order.getStatus())) {
             throw new IllegalStateException("Order is not pending");
         }
+        requireOnSale(eventDAO.lockStatusesByOrderId(orderId));
 
         Payment payment = paymentDAO.findByOrderId(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment for order", orderId));
@@ -102,66 +109,60 @@ public class OrderService {
         orderDAO.updateStatus(orderId, "confirmed");
 
         List<OrderItem> orderItems = orderItemDAO.findByOrderId(orderId);
-        List<Ticket> ticketsToCreate = new ArrayList<>();
+        int ticketCount = orderItems.stream().mapToInt(OrderItem::getQuantity).sum();
+        Iterator<String> ticketCodes = ticketCodeGenerator.nextCodes(ticketCount).iterator();
+        List<Ticket> ticketsToCreate = new ArrayList<>(ticketCount);
         for (OrderItem item : orderItems) {
             for (int i = 0; i < item.getQuantity(); i++) {
                 Ticket ticket = new Ticket();
-                ticket.setTicketCode(generateTicketCode());
+                ticket.setTicketCode(ticketCodes.next());
                 ticket.setOrderItemId(item.getId());
                 ticket.setStatus("active");
                 ticketsToCreate.add(ticket);
             }
         }
         if (!ticketsToCreate.isEmpty()) {
-            ticketDAO.batchCreate(ticketsToCreate);
+            ticketDAO.bulkCreate(ticketsToCreate);
         }
 
+        // Последним шагом: строка сводки категории - горячая, держим ее блокировку как можно меньше
+        salesSummaryDAO.recordConfirmed(orderId);
+
         return order;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Order cancelOrder(Long orderId) {
-        Order order = orderDAO.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+        return transactionExecutor.execute("cancelOrder", () -> doCancelOrder(orderId));
+    }
 
-        if ("cancelled".equals(order.getStatus())) {
-            throw new IllegalStateException("Order is already cancelled");
-        }
+    private Order doCancelOrder(Long orderId) {
+        Order order = orderDAO.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
-        if ("confirmed".equals(order.getStatus())) {
-            List<Ticket> tickets = getOrderTickets(orderId);
-            for (Ticket ticket : tickets) {
-                if ("checked_in".equals(ticket.getStatus())) {
-                    throw new IllegalStateException("Cannot cancel order with checked-in tickets");
-                }
-            }
+        // Истекший заказ уже вернул остатки и квоту промокода - повторно освобождать их нельзя
+        String status = order.getStatus();
+        if (!"pending".equals(status) && !"confirmed".equals(status)) {
+            throw new IllegalStateException("Order cannot be cancelled in status " + status);
         }
 
-        List<OrderItem> orderItems = orderItemDAO.findByOrderId(orderId);
-
-        for (OrderItem item : orderItems) {
-            int updated = ticketCategoryDAO.increaseQuantity(item.getTicketCategoryId(), item.getQuantity());
-            if (updated == 0) {
-                throw new IllegalStateException("Ticket category not found: " + item.getTicketCategoryId());
-            }
-
-            if (item.getPromoCodeId() != null) {
-                promoCodeDAO.decrementUsedCount(item.getPromoCodeId());
-            }
+        boolean wasConfirmed = "confirmed".equals(status);
+        if (wasConfirmed && ticketDAO.countByOrderIdAndStatus(orderId, "checked_in") > 0) {
+            throw new IllegalStateException("Cannot cancel order with checked-in tickets");
         }
 
-        List<Ticket> tickets = getOrderTickets(orderId);
-        if (!tickets.isEmpty()) {
-            List<Long> ticketIds = tickets.stream().map(Ticket::getId).toList();
-            ticketDAO.batchUpdateStatus(ticketIds, "cancelled");
+        List<Long> orderIds = List.of(orderId);
+        ticketCategoryDAO.restoreQuantitiesForOrders(orderIds);
+        promoCodeUsageDAO.releaseForOrders(orderIds);
+        if (wasConfirmed) {
+            ticketDAO.updateStatusByOrderId(orderId, "cancelled");
         }
 
         order.setStatus("cancelled");
-        orderDAO.updateStatus(orderId, "cancelled");
+        orderDAO.updateStatuses(orderIds, "cancelled");
+        paymentDAO.failPendingByOrderIds(orderIds);
 
-        Payment payment = paymentDAO.findByOrderId(orderId).orElse(null);
-        if (payment != null && "pending".equals(payment.getStatus())) {
-            paymentDAO.updateStatus(payment.getId(), "failed");
+        if (wasConfirmed) {
+            salesSummaryDAO.recordCancelled(orderId);
         }
 
         return order;
@@ -172,8 +173,8 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
     }
 
-    public List<Order> getAllOrders(int page, int size) {
-        return orderDAO.findAll(page, size);
+    public CursorPage<Order> getAllOrders(PageCursor after, int size) {
+        return CursorPage.of(orderDAO.findAll(after, size + 1), size, OrderService::pageCursor);
     }
 
     public List<Order> getUserOrders(Long userId) {
@@ -181,22 +182,18 @@ public class OrderService {
     }
 
 
-    public List<Order> getOrdersByStatus(String status, int page, int size) {
-        return orderDAO.findByStatus(status, page, size);
+    public CursorPage<Order> getOrdersByStatus(String status, PageCursor after, int size) {
+        return CursorPage.of(orderDAO.findByStatus(status, after, size + 1), size, OrderService::pageCursor);
+    }
+
+    private static PageCursor pageCursor(Order order) {
+        return new PageCursor(order.getCreatedAt(), order.getId());
     }
 
     public List<Ticket> getOrderTickets(Long orderId) {
         orderDAO.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
-
-        List<OrderItem> orderItems = orderItemDAO.findByOrderId(orderId);
-        List<Ticket> allTickets = new ArrayList<>();
-
-        for (OrderItem item : orderItems) {
-            allTickets.addAll(ticketDAO.findByOrderItemId(item.getId()));
-        }
-
-        return allTickets;
+        return ticketDAO.findByOrderId(orderId);
     }
 
     private static final int MAX_TICKETS_PER_ORDER = 10;
@@ -210,10 +207,6 @@ public class OrderService {
             throw new IllegalArgumentException("Cannot purchase more than " + MAX_TICKETS_PER_ORDER + " tickets per order");
         }
 
-        if (category.getQuantityAvailable() < quantity) {
-            throw new IllegalArgumentException("Not enough tickets available");
-        }
-
         LocalDateTime now = LocalDateTime.now();
         if (category.getSaleStartDate() != null && now.isBefore(category.getSaleStartDate())) {
             throw new IllegalArgumentException("Ticket sales have not started yet");
@@ -224,11 +217,16 @@ public class OrderService {
         }
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Статус читается под FOR KEY SHARE: отмена мероприятия начнется только после коммита этого заказа или оплаты
+    private static void requireOnSale(Map<Long, String> eventStatuses) {
+        eventStatuses.forEach((eventId, status) -> {
+            if (!"published".equals(status)) {
+                throw new IllegalStateException("Event " + eventId + " is not on sale");
+            }
+        });
     }
 
-    private String generateTicketCode() {
-        return "TKT-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private String generateOrderNumber() {
+        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
@@ -0,0 +1,68 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.model.PromoCode;
+import com.example.ticketingsystem.repository.PromoCodeDAO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class PromoCodeCache implements CacheInvalidationHandler {
+
+    private final PromoCodeDAO promoCodeDAO;
+    private final boolean enabled;
+    // Промахи тоже кэшируются: загрузку и вытеснение по ключу упорядочивает сам Caffeine
+    private final Cache<String, Optional<PromoCode>> promoCodesByCode;
+
+    public PromoCodeCache(PromoCodeDAO promoCodeDAO, MeterRegistry meterRegistry,
+                          @Value("${app.promo-codes.cache.enabled:true}") boolean enabled,
+                          @Value("${app.promo-codes.cache.max-size:10000}") long maxSize,
+                          @Value("${app.promo-codes.cache.ttl-ms:30000}") long ttlMs) {
+        this.promoCodeDAO = promoCodeDAO;
+        this.enabled = enabled;
+        // used_count в кэше может отставать - лимит все равно проверяет слот в PromoCodeUsageDAO.consume
+        this.promoCodesByCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, promoCodesByCode, "promo-codes");
+    }
+
+    public Optional<PromoCode> findByCode(String code) {
+        if (!enabled) {
+            return promoCodeDAO.findByCode(code);
+        }
+        return promoCodesByCode.get(code, promoCodeDAO::findByCode);
+    }
+
+    // По ключу вытеснение дожидается загрузки, которая уже идет, - по id ее в кэше еще не видно
+    public void evict(String code) {
+        promoCodesByCode.invalidate(code);
+    }
+
+    @Override
+    public void evict(String entity, long id) {
+        if ("promo_codes".equals(entity)) {
+            // Новый код мог быть закэширован как промах, поэтому вместе с изменившимся вытесняем и их
+            List<String> codes = promoCodesByCode.asMap().entrySet().stream()
+                    .filter(entry -> entry.getValue().map(promoCode -> promoCode.getId() == id).orElse(true))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            promoCodesByCode.invalidateAll(codes);
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        promoCodesByCode.invalidateAll();
+    }
+}
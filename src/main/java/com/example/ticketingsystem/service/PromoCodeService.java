@@ -4,11 +4,9 @@ import com.example.ticketingsystem.exception.ResourceNotFoundException;
 import com.example.ticketingsystem.model.Order;
 import com.example.ticketingsystem.model.OrderItem;
 import com.example.ticketingsystem.model.PromoCode;
-import com.example.ticketingsystem.model.TicketCategory;
 import com.example.ticketingsystem.repository.*;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -20,21 +18,26 @@ import java.util.List;
 @AllArgsConstructor
 public class PromoCodeService {
     private final PromoCodeDAO promoCodeDAO;
+    private final PromoCodeUsageDAO promoCodeUsageDAO;
     private final OrderDAO orderDAO;
     private final OrderItemDAO orderItemDAO;
-    private final TicketCategoryDAO ticketCategoryDAO;
+    private final PromoCodeCache promoCodeCache;
+    private final RetryingTransactionExecutor transactionExecutor;
 
     public PromoCode createPromocode(PromoCode promoCode) {
         return promoCodeDAO.createPromoCode(promoCode);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public void applyPromoCode(String code, Long orderId) {
-        PromoCode promoCode = promoCodeDAO.findByCode(code).orElseThrow(
+        transactionExecutor.run("applyPromoCode", () -> doApplyPromoCode(code, orderId));
+    }
+
+    private void doApplyPromoCode(String code, Long orderId) {
+        PromoCode promoCode = promoCodeCache.findByCode(code).orElseThrow(
                 () -> new ResourceNotFoundException("Promo code not found")
         );
 
-        Order order = orderDAO.findById(orderId).orElseThrow(
+        Order order = orderDAO.findByIdForUpdate(orderId).orElseThrow(
                 () -> new ResourceNotFoundException("Order not found")
         );
 
@@ -42,22 +45,17 @@ public class PromoCodeService {
             throw new IllegalStateException("Cannot apply promo code to order with status: " + order.getStatus());
         }
 
-        List<OrderItem> orderItems = orderItemDAO.findByOrderId(orderId);
+        List<EventOrderItem> orderItems = orderItemDAO.findByOrderIdWithEventId(orderId);
 
         boolean alreadyApplied = orderItems.stream()
-                .anyMatch(item -> item.getPromoCodeId() != null);
+                .anyMatch(it -> it.item().getPromoCodeId() != null);
         if (alreadyApplied) {
             throw new IllegalArgumentException("Promo code already applied to this order");
         }
 
         List<OrderItem> discountItems = orderItems.stream()
-                .filter(it -> {
-                    TicketCategory category = ticketCategoryDAO.findById(it.getTicketCategoryId())
-                            .orElseThrow(() -> new ResourceNotFoundException("TicketCategory", it.getTicketCategoryId()));
-                    Long eventId = category.getEventId();
-
-                    return promoCode.getEventId() == null || promoCode.getEventId().equals(eventId);
-                })
+                .filter(it -> promoCode.getEventId() == null || promoCode.getEventId().equals(it.eventId()))
+                .map(EventOrderItem::item)
                 .toList();
         if (discountItems.isEmpty()) {
             throw new IllegalArgumentException("Promo code is not applicable to any items in order");
@@ -65,28 +63,23 @@ public class PromoCodeService {
 
         validatePromoCode(promoCode);
 
-        int updated = promoCodeDAO.incrementUsedCount(promoCode.getId());
-        if (updated == 0) {
+        // Сначала свободный слот без ожидания; если все заняты - ждем, чтобы не отказать при оставшемся лимите
+        boolean consumed = promoCodeUsageDAO.consume(promoCode.getId(), true)
+                || promoCodeUsageDAO.consume(promoCode.getId(), false);
+        if (!consumed) {
             throw new IllegalArgumentException("Promo code usage limit exceeded");
         }
 
+        orderItemDAO.updatePromoCodeIds(discountItems.stream().map(OrderItem::getId).toList(), promoCode.getId());
+
         BigDecimal totalDiscount = BigDecimal.ZERO;
 
         if ("fixed".equals(promoCode.getDiscountType())) {
-            BigDecimal fixedDiscount = promoCode.getDiscountValue();
-            for (int i = 0; i < discountItems.size(); i++) {
-                OrderItem item = discountItems.get(i);
-                orderItemDAO.updatePromoCodeId(item.getId(), promoCode.getId());
-
-                if (i == 0) {
-                    BigDecimal itemTotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                    totalDiscount = fixedDiscount.min(itemTotal);
-                }
-            }
+            OrderItem item = discountItems.getFirst();
+            BigDecimal itemTotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            totalDiscount = promoCode.getDiscountValue().min(itemTotal);
         } else {
             for (OrderItem item : discountItems) {
-                orderItemDAO.updatePromoCodeId(item.getId(), promoCode.getId());
-
                 BigDecimal itemTotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
                 BigDecimal itemDiscount = calculateDiscount(promoCode, itemTotal);
                 totalDiscount = totalDiscount.add(itemDiscount);
@@ -112,7 +105,10 @@ public class PromoCodeService {
         }
 
         promoCode.setId(id);
-        return promoCodeDAO.update(promoCode);
+        PromoCode updated = promoCodeDAO.update(promoCode);
+        promoCodeCache.evict(existing.getCode());
+        promoCodeCache.evict("promo_codes", id);
+        return updated;
     }
 
     @Transactional
@@ -121,6 +117,7 @@ public class PromoCodeService {
         if (deleted == 0) {
             throw new ResourceNotFoundException("Promo code", id);
         }
+        promoCodeCache.evict("promo_codes", id);
     }
 
     public List<PromoCode> getAllPromoCodes() {
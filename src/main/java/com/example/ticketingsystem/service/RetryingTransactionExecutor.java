@@ -0,0 +1,122 @@
+package com.example.ticketingsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Component
+public class RetryingTransactionExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryingTransactionExecutor.class);
+
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01");
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.transactions.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.transactions.backoff-base-ms:10}")
+    private long backoffBaseMs;
+
+    @Value("${app.transactions.backoff-max-ms:500}")
+    private long backoffMaxMs;
+
+    public RetryingTransactionExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // Внутри чужой транзакции повторять нечего - откатится вся внешняя транзакция
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> action.get());
+                recordAttempt(operation, "committed");
+                sample.stop(timer(operation, "committed"));
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    recordAttempt(operation, "failed");
+                    sample.stop(timer(operation, "failed"));
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    recordAttempt(operation, "aborted");
+                    sample.stop(timer(operation, "aborted"));
+                    log.warn("{} aborted after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                recordAttempt(operation, "retried");
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && RETRYABLE_SQL_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry transaction", e);
+        }
+    }
+
+    private void recordAttempt(String operation, String outcome) {
+        Counter.builder("transactions.attempts")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("transactions.duration")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.AdvisoryLockDAO;
+import com.example.ticketingsystem.repository.SalesSummaryDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SalesSummaryReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesSummaryReconciler.class);
+    private static final String LOCK_NAME = "sales-summary-reconcile";
+
+    private final SalesSummaryDAO salesSummaryDAO;
+    private final AdvisoryLockDAO advisoryLockDAO;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final Counter driftedCategories;
+
+    @Value("${app.statistics.reconcile.enabled:true}")
+    private boolean enabled;
+
+    public SalesSummaryReconciler(SalesSummaryDAO salesSummaryDAO, AdvisoryLockDAO advisoryLockDAO,
+                                  RetryingTransactionExecutor transactionExecutor, MeterRegistry meterRegistry) {
+        this.salesSummaryDAO = salesSummaryDAO;
+        this.advisoryLockDAO = advisoryLockDAO;
+        this.transactionExecutor = transactionExecutor;
+        this.driftedCategories = Counter.builder("sales.summary.drifted.categories").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.statistics.reconcile.initial-delay-ms:60000}",
+            fixedDelayString = "${app.statistics.reconcile.interval-ms:900000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> repaired = transactionExecutor.execute("reconcileSalesSummary", () -> {
+            if (!advisoryLockDAO.tryTransactionLock(LOCK_NAME)) {
+                return List.<Long>of();
+            }
+            List<Long> drifted = salesSummaryDAO.findDriftedCategories();
+            if (!drifted.isEmpty()) {
+                salesSummaryDAO.rebuildCategories(drifted);
+            }
+            return drifted;
+        });
+
+        if (!repaired.isEmpty()) {
+            driftedCategories.increment(repaired.size());
+            log.warn("Sales summary drifted for {} ticket categories, rebuilt from order data: {}",
+                    repaired.size(), repaired.size() > 20 ? repaired.subList(0, 20) + "..." : repaired);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.AdvisoryLockDAO;
+import com.example.ticketingsystem.repository.StatisticsDAO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class StatisticsRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsRefreshService.class);
+    private static final List<String> MATERIALIZED_VIEWS = List.of(
+            "venue_utilization_view",
+            "promo_code_effectiveness_view"
+    );
+
+    private final StatisticsDAO statisticsDAO;
+    private final AdvisoryLockDAO advisoryLockDAO;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.statistics.refresh.enabled:true}")
+    private boolean enabled;
+
+    public StatisticsRefreshService(StatisticsDAO statisticsDAO, AdvisoryLockDAO advisoryLockDAO,
+                                    RetryingTransactionExecutor transactionExecutor, MeterRegistry meterRegistry) {
+        this.statisticsDAO = statisticsDAO;
+        this.advisoryLockDAO = advisoryLockDAO;
+        this.transactionExecutor = transactionExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(initialDelayString = "${app.statistics.refresh.initial-delay-ms:30000}",
+            fixedDelayString = "${app.statistics.refresh.interval-ms:300000}")
+    public void refreshMaterializedViews() {
+        if (!enabled) {
+            return;
+        }
+        for (String view : MATERIALIZED_VIEWS) {
+            try {
+                refresh(view);
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh {}, readers keep the previous snapshot", view, e);
+            }
+        }
+    }
+
+    private void refresh(String view) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // CONCURRENTLY не блокирует читателей, но два refresh одной вьюхи все равно встанут в очередь -
+        // второй узел просто пропускает цикл
+        boolean refreshed = transactionExecutor.execute("refreshStatistics", () -> {
+            if (!advisoryLockDAO.tryTransactionLock("statistics-refresh:" + view)) {
+                return false;
+            }
+            statisticsDAO.refreshMaterializedView(view);
+            return true;
+        });
+
+        if (!refreshed) {
+            log.debug("Refresh of {} is running on another node, skipping", view);
+            return;
+        }
+        long nanos = sample.stop(Timer.builder("statistics.refresh.duration")
+                .tag("view", view)
+                .register(meterRegistry));
+        log.debug("Refreshed {} in {} ms", view, nanos / 1_000_000);
+    }
+}
@@ -19,17 +19,20 @@ public class TicketCategoryService {
     private final TicketCategoryDAO ticketCategoryDAO;
     private final EventDAO eventDAO;
     private final OrderItemDAO orderItemDAO;
+    private final CatalogCache catalogCache;
 
-    public TicketCategoryService(TicketCategoryDAO ticketCategoryDAO, EventDAO eventDAO, OrderItemDAO orderItemDAO) {
+    public TicketCategoryService(TicketCategoryDAO ticketCategoryDAO, EventDAO eventDAO, OrderItemDAO orderItemDAO,
+                                 CatalogCache catalogCache) {
         this.ticketCategoryDAO = ticketCategoryDAO;
         this.eventDAO = eventDAO;
         this.orderItemDAO = orderItemDAO;
+        this.catalogCache = catalogCache;
     }
 
     public List<TicketCategory> getTicketCategoriesByEventId(Long eventId) {
-        eventDAO.getEventById(eventId)
+        catalogCache.getEvent(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
-        return ticketCategoryDAO.findByEventId(eventId);
+        return catalogCache.getCategories(eventId);
     }
 
     public Optional<TicketCategory> getTicketCategoryById(Long id) {
@@ -47,7 +50,9 @@ public class TicketCategoryService {
         validateSaleDates(ticketCategory.getSaleStartDate(), ticketCategory.getSaleEndDate());
 
         ticketCategory.setEventId(eventId);
-        return ticketCategoryDAO.create(ticketCategory);
+        TicketCategory created = ticketCategoryDAO.create(ticketCategory);
+        catalogCache.invalidateCategories(eventId);
+        return created;
     }
 
     public TicketCategory updateTicketCategory(Long id, TicketCategory ticketCategory) {
@@ -58,12 +63,14 @@ public class TicketCategoryService {
 
         ticketCategory.setId(id);
         ticketCategory.setEventId(existing.getEventId());
-        return ticketCategoryDAO.update(ticketCategory);
+        TicketCategory updated = ticketCategoryDAO.update(ticketCategory);
+        catalogCache.invalidateCategories(existing.getEventId());
+        return updated;
     }
 
     @Transactional
     public void deleteTicketCategory(Long id) {
-        ticketCategoryDAO.findById(id)
+        TicketCategory existing = ticketCategoryDAO.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("TicketCategory", id));
 
         int orderCount = orderItemDAO.countByTicketCategoryId(id);
@@ -72,6 +79,7 @@ public class TicketCategoryService {
         }
 
         ticketCategoryDAO.delete(id);
+        catalogCache.invalidateCategories(existing.getEventId());
     }
 
     private void validateSaleDates(LocalDateTime saleStartDate, LocalDateTime saleEndDate) {
@@ -0,0 +1,117 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.TicketDAO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class TicketCodeGenerator {
+
+    // Crockford base32: без I, L, O, U - код удобно диктовать и вводить руками на входе
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int NODE_CHARS = 7;
+    private static final int SEQUENCE_CHARS = 8;
+    private static final int RANDOM_CHARS = 8;
+    private static final long SEQUENCE_LIMIT = 1L << (SEQUENCE_CHARS * 5);
+
+    private final TicketDAO ticketDAO;
+    private final long sequenceLimit;
+    private final SecureRandom random = new SecureRandom();
+    private final ReentrantLock allocationLock = new ReentrantLock();
+    private volatile Block block;
+
+    @Autowired
+    public TicketCodeGenerator(TicketDAO ticketDAO) {
+        this(ticketDAO, SEQUENCE_LIMIT);
+    }
+
+    // Для тестов: блок кончается за несколько вызовов, а не за 2^40 номеров
+    TicketCodeGenerator(TicketDAO ticketDAO, long sequenceLimit) {
+        this.ticketDAO = ticketDAO;
+        this.sequenceLimit = Math.min(sequenceLimit, SEQUENCE_LIMIT);
+    }
+
+    public List<String> nextCodes(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+
+        Block current = currentBlock();
+        long first = current.sequence().getAndAdd(count);
+        if (first + count > sequenceLimit) {
+            rotate(current);
+            return nextCodes(count);
+        }
+
+        // Уникальность дает пара (узел, номер), случайный хвост - только защита от подбора кода
+        byte[] entropy = new byte[count * RANDOM_CHARS * 5 / 8];
+        random.nextBytes(entropy);
+
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder code = new StringBuilder(current.prefix().length() + SEQUENCE_CHARS + 1 + RANDOM_CHARS);
+            code.append(current.prefix());
+            appendBase32(code, first + i, SEQUENCE_CHARS);
+            code.append('-');
+            appendBase32(code, randomBits(entropy, i * 5), RANDOM_CHARS);
+            codes.add(code.toString());
+        }
+        return codes;
+    }
+
+    private Block currentBlock() {
+        Block current = block;
+        if (current != null) {
+            return current;
+        }
+        allocationLock.lock();
+        try {
+            if (block == null) {
+                block = allocate();
+            }
+            return block;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    private void rotate(Block exhausted) {
+        allocationLock.lock();
+        try {
+            if (block == exhausted) {
+                block = allocate();
+            }
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    private Block allocate() {
+        StringBuilder prefix = new StringBuilder("TKT-");
+        appendBase32(prefix, ticketDAO.nextCodeNodeId(), NODE_CHARS);
+        prefix.append('-');
+        return new Block(prefix.toString(), new AtomicLong());
+    }
+
+    private static long randomBits(byte[] entropy, int offset) {
+        long value = 0;
+        for (int i = 0; i < 5; i++) {
+            value = (value << 8) | (entropy[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void appendBase32(StringBuilder target, long value, int chars) {
+        for (int shift = (chars - 1) * 5; shift >= 0; shift -= 5) {
+            target.append(ALPHABET[(int) ((value >>> shift) & 31)]);
+        }
+    }
+
+    private record Block(String prefix, AtomicLong sequence) {}
+}
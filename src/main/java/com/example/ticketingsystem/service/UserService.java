@@ -4,8 +4,10 @@ import com.example.ticketingsystem.dto.response.UserResponse;
 import com.example.ticketingsystem.exception.DuplicateResourceException;
 import com.example.ticketingsystem.model.Role;
 import com.example.ticketingsystem.model.User;
+import com.example.ticketingsystem.repository.CursorPage;
+import com.example.ticketingsystem.repository.PageCursor;
 import com.example.ticketingsystem.repository.UserDAO;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,11 +20,11 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserDAO userDAO;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
-    public UserService(UserDAO userDAO) {
+    public UserService(UserDAO userDAO, PasswordEncoder passwordEncoder) {
         this.userDAO = userDAO;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
     }
 
     public Optional<UserResponse> getUserWithRoles(Long id) {
@@ -42,8 +44,9 @@ public class UserService {
         return Optional.of(response);
     }
 
-    public List<User> getAllUsers(int page, int size) {
-        return userDAO.getAllUsers(page, size);
+    public CursorPage<User> getAllUsers(PageCursor after, int size) {
+        return CursorPage.of(userDAO.getAllUsers(after, size + 1), size,
+                user -> new PageCursor(user.getCreatedAt(), user.getId()));
     }
 
     @Transactional
@@ -0,0 +1,261 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.dto.request.OrderItemRequest;
+import com.example.ticketingsystem.exception.ResourceNotFoundException;
+import com.example.ticketingsystem.exception.TooManyRequestsException;
+import com.example.ticketingsystem.model.TicketCategory;
+import com.example.ticketingsystem.model.User;
+import com.example.ticketingsystem.model.WaitingRoom;
+import com.example.ticketingsystem.model.WaitingRoomEntry;
+import com.example.ticketingsystem.model.WaitingRoomStatus;
+import com.example.ticketingsystem.repository.AdvisoryLockDAO;
+import com.example.ticketingsystem.repository.TicketCategoryDAO;
+import com.example.ticketingsystem.repository.UserDAO;
+import com.example.ticketingsystem.repository.WaitingRoomDAO;
+import com.example.ticketingsystem.security.AdmissionTokenUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class WaitingRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomService.class);
+    private static final String LOCK_NAME = "waiting-room-admission";
+    private static final long MIN_POLL_SECONDS = 2;
+    private static final long MAX_POLL_SECONDS = 60;
+
+    private final WaitingRoomDAO waitingRoomDAO;
+    private final UserDAO userDAO;
+    private final TicketCategoryDAO ticketCategoryDAO;
+    private final CatalogCache catalogCache;
+    private final AdvisoryLockDAO advisoryLockDAO;
+    private final RetryingTransactionExecutor transactionExecutor;
+    private final AdmissionTokenUtil admissionTokenUtil;
+    private final Cache<Long, Long> eventIdsByCategory;
+    private final Counter admitted;
+    private final Counter rejected;
+
+    @Value("${app.waiting-room.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.waiting-room.token-ttl-ms:600000}")
+    private long tokenTtlMs;
+
+    // Снимок открытых комнат обновляется на каждом такте допуска - путь заказа не ходит за ним в базу
+    private volatile Map<Long, WaitingRoom> openRooms = Map.of();
+
+    public WaitingRoomService(WaitingRoomDAO waitingRoomDAO, UserDAO userDAO, TicketCategoryDAO ticketCategoryDAO,
+                              CatalogCache catalogCache, AdvisoryLockDAO advisoryLockDAO,
+                              RetryingTransactionExecutor transactionExecutor, AdmissionTokenUtil admissionTokenUtil,
+                              MeterRegistry meterRegistry) {
+        this.waitingRoomDAO = waitingRoomDAO;
+        this.userDAO = userDAO;
+        this.ticketCategoryDAO = ticketCategoryDAO;
+        this.catalogCache = catalogCache;
+        this.advisoryLockDAO = advisoryLockDAO;
+        this.transactionExecutor = transactionExecutor;
+        this.admissionTokenUtil = admissionTokenUtil;
+        this.eventIdsByCategory = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+        this.admitted = Counter.builder("waiting-room.admitted").register(meterRegistry);
+        this.rejected = Counter.builder("waiting-room.rejected-orders").register(meterRegistry);
+    }
+
+    public WaitingRoom open(Long eventId, int admissionsPerMinute) {
+        if (admissionsPerMinute <= 0) {
+            throw new IllegalArgumentException("admissionsPerMinute must be positive");
+        }
+        catalogCache.getEvent(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+
+        WaitingRoom waitingRoom = waitingRoomDAO.open(eventId, admissionsPerMinute);
+        refreshOpenRooms();
+        log.info("Waiting room for event {} opened, admitting {} per minute", eventId, admissionsPerMinute);
+        return waitingRoom;
+    }
+
+    public void close(Long eventId) {
+        if (waitingRoomDAO.close(eventId) == 0) {
+            throw new ResourceNotFoundException("Waiting room for event", eventId);
+        }
+        refreshOpenRooms();
+        log.info("Waiting room for event {} closed", eventId);
+    }
+
+    public WaitingRoomStatus join(Long eventId, String username) {
+        WaitingRoom waitingRoom = waitingRoomDAO.findByEventId(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waiting room for event", eventId));
+        Long userId = findUserId(username);
+
+        Optional<WaitingRoomEntry> existing = waitingRoomDAO.findEntry(eventId, userId);
+        if (existing.isPresent() && (isExpired(existing.get()) || existing.get().getUsedAt() != null)) {
+            // Окно допуска упущено или уже потрачено на заказ - встаем в конец очереди заново
+            waitingRoomDAO.deleteEntry(existing.get().getId());
+            existing = Optional.empty();
+        }
+        WaitingRoomEntry entry = existing.orElseGet(() -> waitingRoomDAO.join(eventId, userId));
+        return toStatus(waitingRoom, entry);
+    }
+
+    public WaitingRoomStatus getStatus(Long eventId, String username) {
+        WaitingRoom waitingRoom = Optional.ofNullable(openRooms.get(eventId))
+                .or(() -> waitingRoomDAO.findByEventId(eventId))
+                .orElseThrow(() -> new ResourceNotFoundException("Waiting room for event", eventId));
+        WaitingRoomEntry entry = waitingRoomDAO.findEntry(eventId, findUserId(username))
+                .orElseThrow(() -> new ResourceNotFoundException("Waiting room entry for event", eventId));
+        return toStatus(waitingRoom, entry);
+    }
+
+    // Мероприятия заказа за очередью ожидания; допуск к ним списывает createOrder через useAdmissions
+    public Set<Long> checkAdmission(Long userId, List<OrderItemRequest> items, String admissionToken) {
+        Map<Long, WaitingRoom> rooms = openRooms;
+        if (!enabled || rooms.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> gatedEventIds = new TreeSet<>();
+        for (OrderItemRequest item : items) {
+            Long eventId = findEventId(item.getTicketCategoryId());
+            if (eventId != null && rooms.containsKey(eventId)) {
+                gatedEventIds.add(eventId);
+            }
+        }
+        if (gatedEventIds.isEmpty()) {
+            return gatedEventIds;
+        }
+
+        Optional<AdmissionTokenUtil.Admission> admission = Optional.ofNullable(admissionToken)
+                .flatMap(admissionTokenUtil::verify);
+        for (Long eventId : gatedEventIds) {
+            boolean admittedForEvent = admission
+                    .filter(it -> eventId.equals(it.eventId()) && Objects.equals(userId, it.userId()))
+                    .isPresent();
+            if (!admittedForEvent) {
+                rejected.increment();
+                throw new TooManyRequestsException("Event " + eventId + " is behind a waiting room: join the queue at "
+                        + "/api/waiting-room/" + eventId + "/join and retry with the issued admission token",
+                        MIN_POLL_SECONDS);
+            }
+        }
+        return gatedEventIds;
+    }
+
+    // Вызывается в транзакции заказа: откат заказа возвращает и допуск, а два заказа по одному токену не пройдут
+    public void useAdmissions(Long userId, Set<Long> eventIds) {
+        for (Long eventId : eventIds) {
+            if (waitingRoomDAO.markUsed(eventId, userId) == 0) {
+                rejected.increment();
+                throw new TooManyRequestsException("Admission to event " + eventId + " has already been used: join the "
+                        + "queue again at /api/waiting-room/" + eventId + "/join", MIN_POLL_SECONDS);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.waiting-room.admission-interval-ms:1000}")
+    public void admit() {
+        if (!enabled) {
+            return;
+        }
+        if (refreshOpenRooms().isEmpty()) {
+            return;
+        }
+
+        transactionExecutor.run("admitWaitingRooms", () -> {
+            if (!advisoryLockDAO.tryTransactionLock(LOCK_NAME)) {
+                return;
+            }
+            // Норму считаем по строкам, прочитанным уже под блокировкой: снимок до нее мог устареть,
+            // если другой узел успел выпустить пачку и отпустить блокировку
+            LocalDateTime now = LocalDateTime.now();
+            for (WaitingRoom room : waitingRoomDAO.findAllForUpdate()) {
+                admit(room, now);
+            }
+        });
+    }
+
+    private void admit(WaitingRoom room, LocalDateTime now) {
+        long elapsedMs = Math.max(Duration.between(room.getLastAdmissionAt(), now).toMillis(), 0);
+        // Не больше минутной нормы за такт, даже если планировщик долго простаивал
+        int quota = (int) Math.min(elapsedMs * room.getAdmissionsPerMinute() / 60_000, room.getAdmissionsPerMinute());
+        if (quota == 0) {
+            return;
+        }
+
+        int count = waitingRoomDAO.admitNext(room.getEventId(), quota);
+        admitted.increment(count);
+        // Пустая очередь не копит неиспользованную норму на потом
+        LocalDateTime lastAdmissionAt = count < quota
+                ? now
+                : room.getLastAdmissionAt().plus(Duration.ofMillis(count * 60_000L / room.getAdmissionsPerMinute()));
+        waitingRoomDAO.updateLastAdmissionAt(room.getEventId(), lastAdmissionAt);
+        if (count > 0) {
+            log.debug("Admitted {} users to event {}", count, room.getEventId());
+        }
+    }
+
+    private List<WaitingRoom> refreshOpenRooms() {
+        List<WaitingRoom> rooms = waitingRoomDAO.findAll();
+        openRooms = rooms.stream().collect(Collectors.toUnmodifiableMap(WaitingRoom::getEventId, Function.identity()));
+        return rooms;
+    }
+
+    private WaitingRoomStatus toStatus(WaitingRoom waitingRoom, WaitingRoomEntry entry) {
+        if (entry.getUsedAt() != null) {
+            return new WaitingRoomStatus(entry.getEventId(), "used", null, null, null, null, null);
+        }
+        if (entry.getAdmittedAt() != null) {
+            LocalDateTime expiresAt = admissionExpiresAt(entry);
+            if (isExpired(entry)) {
+                return new WaitingRoomStatus(entry.getEventId(), "expired", null, null, null, null, expiresAt);
+            }
+            String token = admissionTokenUtil.generateToken(entry.getEventId(), entry.getUserId(),
+                    expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+            return new WaitingRoomStatus(entry.getEventId(), "admitted", 0L, 0L, null, token, expiresAt);
+        }
+
+        long position = waitingRoomDAO.countAhead(entry.getEventId(), entry.getId()) + 1;
+        long estimatedWaitSeconds = position * 60 / waitingRoom.getAdmissionsPerMinute();
+        // Чем дальше в очереди, тем реже опрос - сам опрос тоже нагрузка
+        long pollAfterSeconds = Math.clamp(estimatedWaitSeconds / 4, MIN_POLL_SECONDS, MAX_POLL_SECONDS);
+        return new WaitingRoomStatus(entry.getEventId(), "waiting", position, estimatedWaitSeconds,
+                pollAfterSeconds, null, null);
+    }
+
+    private LocalDateTime admissionExpiresAt(WaitingRoomEntry entry) {
+        return entry.getAdmittedAt().plus(Duration.ofMillis(tokenTtlMs));
+    }
+
+    private boolean isExpired(WaitingRoomEntry entry) {
+        return entry.getAdmittedAt() != null && admissionExpiresAt(entry).isBefore(LocalDateTime.now());
+    }
+
+    private Long findUserId(String username) {
+        return userDAO.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User with username: " + username));
+    }
+
+    private Long findEventId(Long ticketCategoryId) {
+        if (ticketCategoryId == null) {
+            return null;
+        }
+        return eventIdsByCategory.get(ticketCategoryId,
+                id -> ticketCategoryDAO.findById(id).map(TicketCategory::getEventId).orElse(null));
+    }
+}
@@ -0,0 +1,70 @@
+CREATE TABLE event_sales_summary
+(
+    category_id      BIGINT PRIMARY KEY REFERENCES ticket_categories (id) ON DELETE CASCADE,
+    event_id         BIGINT         NOT NULL REFERENCES events (id) ON DELETE CASCADE,
+    tickets_sold     BIGINT         NOT NULL DEFAULT 0,
+    revenue          DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    item_count       BIGINT         NOT NULL DEFAULT 0,
+    unit_price_total DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_event_sales_summary_event_id ON event_sales_summary (event_id);
+
+CREATE TABLE event_sales_hourly
+(
+    category_id  BIGINT         NOT NULL REFERENCES ticket_categories (id) ON DELETE CASCADE,
+    bucket_start TIMESTAMP      NOT NULL,
+    tickets_sold BIGINT         NOT NULL DEFAULT 0,
+    revenue      DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (category_id, bucket_start)
+);
+
+INSERT INTO event_sales_summary (category_id, event_id, tickets_sold, revenue, item_count, unit_price_total)
+SELECT oi.ticket_category_id,
+       tc.event_id,
+       SUM(oi.quantity),
+       SUM(oi.quantity * oi.unit_price),
+       COUNT(*),
+       SUM(oi.unit_price)
+FROM order_items oi
+         JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+         JOIN ticket_categories tc ON tc.id = oi.ticket_category_id
+GROUP BY oi.ticket_category_id, tc.event_id;
+
+INSERT INTO event_sales_hourly (category_id, bucket_start, tickets_sold, revenue)
+SELECT oi.ticket_category_id,
+       date_trunc('hour', o.created_at),
+       SUM(oi.quantity),
+       SUM(oi.quantity * oi.unit_price)
+FROM order_items oi
+         JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+GROUP BY oi.ticket_category_id, date_trunc('hour', o.created_at);
+
+DROP VIEW IF EXISTS event_sales_view;
+
+CREATE VIEW event_sales_view AS
+SELECT e.id                                             event_id,
+       e.title                                          event_title,
+       tc.id                                            category_id,
+       tc.name                                          category_name,
+       COALESCE(s.tickets_sold, 0)                      tickets_sold,
+       tc.quantity_available                            tickets_available,
+       CASE
+           WHEN s.item_count > 0 THEN ROUND(s.unit_price_total / s.item_count, 2)
+           ELSE 0
+           END                                          avg_ticket_price,
+       COALESCE(w.tickets_sold, 0)::BIGINT              tickets_sold_last_7_days,
+       CASE
+           WHEN (tc.quantity_available + COALESCE(s.tickets_sold, 0)) > 0
+               THEN (COALESCE(s.tickets_sold, 0) * 100 / (tc.quantity_available + COALESCE(s.tickets_sold, 0)))::INTEGER
+           ELSE 0
+           END                                          sold_percentage,
+       COALESCE(s.revenue, 0)                           revenue
+FROM events e
+         JOIN ticket_categories tc ON tc.event_id = e.id
+         LEFT JOIN event_sales_summary s ON s.category_id = tc.id
+         LEFT JOIN LATERAL (SELECT SUM(h.tickets_sold) tickets_sold
+                            FROM event_sales_hourly h
+                            WHERE h.category_id = tc.id
+                              AND h.bucket_start >= date_trunc('hour', now() - INTERVAL '7 days')) w ON TRUE;
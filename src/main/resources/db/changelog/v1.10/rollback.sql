@@ -0,0 +1,25 @@
+DROP VIEW IF EXISTS event_sales_view;
+
+CREATE VIEW event_sales_view AS
+SELECT e.id AS                         event_id,
+       e.title                         event_title,
+       tc.id                           category_id,
+       tc.name                         category_name,
+       COALESCE(SUM(oi.quantity), 0)   tickets_sold,
+       tc.quantity_available           tickets_available,
+       COALESCE(AVG(oi.unit_price), 0) avg_ticket_price,
+       COALESCE(SUM(oi.quantity) FILTER (WHERE o.created_at >= now() - INTERVAL '7 days'),
+                0)                     tickets_sold_last_7_days,
+       CASE
+           WHEN (tc.quantity_available + COALESCE(SUM(oi.quantity), 0)) > 0
+               THEN (COALESCE(SUM(oi.quantity), 0) * 100 / (tc.quantity_available + COALESCE(SUM(oi.quantity), 0)))::INTEGER
+           ELSE 0
+           END                         sold_percentage
+FROM events e
+         JOIN ticket_categories tc ON tc.event_id = e.id
+         LEFT JOIN order_items oi ON oi.ticket_category_id = tc.id
+         LEFT JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+GROUP BY e.id, e.title, tc.id, tc.name, tc.quantity_available;
+
+DROP TABLE IF EXISTS event_sales_hourly;
+DROP TABLE IF EXISTS event_sales_summary;
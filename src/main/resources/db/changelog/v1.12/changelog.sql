@@ -0,0 +1 @@
+CREATE SEQUENCE ticket_code_node_seq;
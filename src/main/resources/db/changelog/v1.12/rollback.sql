@@ -0,0 +1 @@
+DROP SEQUENCE IF EXISTS ticket_code_node_seq;
@@ -0,0 +1,35 @@
+CREATE OR REPLACE FUNCTION notify_cache_invalidation() RETURNS TRIGGER AS
+$$
+DECLARE
+    new_key TEXT := to_jsonb(NEW) ->> TG_ARGV[1];
+    old_key TEXT := to_jsonb(OLD) ->> TG_ARGV[1];
+BEGIN
+    -- Одинаковые payload внутри транзакции PostgreSQL схлопывает сам
+    IF new_key IS NOT NULL THEN
+        PERFORM pg_notify('cache_invalidation', TG_ARGV[0] || ':' || new_key);
+    END IF;
+    IF old_key IS NOT NULL AND old_key IS DISTINCT FROM new_key THEN
+        PERFORM pg_notify('cache_invalidation', TG_ARGV[0] || ':' || old_key);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_events_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE
+    ON events
+    FOR EACH ROW
+EXECUTE FUNCTION notify_cache_invalidation('events', 'id');
+
+-- quantity_available меняется на каждой продаже и ограничен TTL кэша, поэтому в списке колонок его нет
+CREATE TRIGGER trg_ticket_categories_cache_invalidation
+    AFTER INSERT OR DELETE OR UPDATE OF event_id, name, description, price, sale_start_date, sale_end_date
+    ON ticket_categories
+    FOR EACH ROW
+EXECUTE FUNCTION notify_cache_invalidation('categories', 'event_id');
+
+CREATE TRIGGER trg_promo_codes_cache_invalidation
+    AFTER INSERT OR DELETE OR UPDATE OF code, event_id, discount_type, discount_value, max_uses, valid_from, valid_until
+    ON promo_codes
+    FOR EACH ROW
+EXECUTE FUNCTION notify_cache_invalidation('promo_codes', 'id');
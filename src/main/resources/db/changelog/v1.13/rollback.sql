@@ -0,0 +1,4 @@
+DROP TRIGGER IF EXISTS trg_promo_codes_cache_invalidation ON promo_codes;
+DROP TRIGGER IF EXISTS trg_ticket_categories_cache_invalidation ON ticket_categories;
+DROP TRIGGER IF EXISTS trg_events_cache_invalidation ON events;
+DROP FUNCTION IF EXISTS notify_cache_invalidation();
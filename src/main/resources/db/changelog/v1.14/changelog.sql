@@ -0,0 +1,13 @@
+CREATE TABLE event_cancellations
+(
+    event_id         BIGINT PRIMARY KEY REFERENCES events (id) ON DELETE CASCADE,
+    status           VARCHAR(20) NOT NULL DEFAULT 'running',
+    total_orders     INTEGER     NOT NULL DEFAULT 0,
+    cancelled_orders INTEGER     NOT NULL DEFAULT 0,
+    last_order_id    BIGINT      NOT NULL DEFAULT 0,
+    started_at       TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at     TIMESTAMP
+);
+
+CREATE INDEX idx_event_cancellations_running ON event_cancellations (updated_at) WHERE status = 'running';
@@ -0,0 +1,141 @@
+ALTER TABLE promo_codes
+    ADD COLUMN usage_slots INT NOT NULL DEFAULT 8 CHECK (usage_slots BETWEEN 1 AND 256);
+
+CREATE TABLE promo_code_usage_slots
+(
+    promo_code_id BIGINT NOT NULL REFERENCES promo_codes (id) ON DELETE CASCADE,
+    slot          INT    NOT NULL,
+    used_count    INT    NOT NULL DEFAULT 0,
+    remaining     INT,
+    PRIMARY KEY (promo_code_id, slot),
+    CHECK (used_count >= 0),
+    CHECK (remaining >= 0)
+);
+
+INSERT INTO promo_code_usage_slots (promo_code_id, slot, used_count)
+SELECT pc.id, s.slot, CASE WHEN s.slot = 0 THEN pc.used_count ELSE 0 END
+FROM promo_codes pc
+         CROSS JOIN LATERAL generate_series(0, pc.usage_slots - 1) AS s(slot);
+
+-- Остаток лимита делится между слотами поровну, remaining IS NULL - код без лимита
+CREATE OR REPLACE FUNCTION rebalance_promo_code_usage_slots(p_promo_code_id BIGINT) RETURNS VOID AS
+$$
+DECLARE
+    slot_count      INT;
+    max_uses_limit  INT;
+    total_used      INT;
+    total_remaining INT;
+BEGIN
+    SELECT usage_slots, max_uses
+    INTO slot_count, max_uses_limit
+    FROM promo_codes
+    WHERE id = p_promo_code_id;
+    IF NOT FOUND THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO promo_code_usage_slots (promo_code_id, slot)
+    SELECT p_promo_code_id, s
+    FROM generate_series(0, slot_count - 1) s
+    ON CONFLICT DO NOTHING;
+
+    -- Тот же порядок блокировок, что и при освобождении, иначе возможен дедлок
+    PERFORM 1
+    FROM promo_code_usage_slots
+    WHERE promo_code_id = p_promo_code_id
+    ORDER BY slot
+    FOR UPDATE;
+
+    WITH removed AS (
+        DELETE FROM promo_code_usage_slots
+        WHERE promo_code_id = p_promo_code_id AND slot >= slot_count
+        RETURNING used_count
+    )
+    UPDATE promo_code_usage_slots
+    SET used_count = used_count + (SELECT SUM(used_count) FROM removed)
+    WHERE promo_code_id = p_promo_code_id AND slot = 0 AND EXISTS (SELECT 1 FROM removed);
+
+    SELECT SUM(used_count) INTO total_used
+    FROM promo_code_usage_slots
+    WHERE promo_code_id = p_promo_code_id;
+
+    total_remaining := CASE WHEN max_uses_limit IS NOT NULL THEN GREATEST(max_uses_limit - total_used, 0) END;
+
+    UPDATE promo_code_usage_slots
+    SET remaining = total_remaining / slot_count + CASE WHEN slot < total_remaining % slot_count THEN 1 ELSE 0 END
+    WHERE promo_code_id = p_promo_code_id;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT rebalance_promo_code_usage_slots(id) FROM promo_codes;
+
+CREATE OR REPLACE FUNCTION promo_codes_rebalance_usage_slots() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND NEW.max_uses IS NOT DISTINCT FROM OLD.max_uses
+        AND NEW.usage_slots = OLD.usage_slots THEN
+        RETURN NULL;
+    END IF;
+    PERFORM rebalance_promo_code_usage_slots(NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_promo_codes_usage_slots
+    AFTER INSERT OR UPDATE OF max_uses, usage_slots
+    ON promo_codes
+    FOR EACH ROW
+EXECUTE FUNCTION promo_codes_rebalance_usage_slots();
+
+DROP MATERIALIZED VIEW IF EXISTS promo_code_effectiveness_view;
+
+ALTER TABLE promo_codes
+    DROP COLUMN used_count;
+
+CREATE MATERIALIZED VIEW promo_code_effectiveness_view AS
+SELECT pc.id                                         AS promo_code_id,
+       pc.code,
+       pc.discount_type,
+       pc.discount_value,
+       pc.max_uses,
+       COALESCE(u.used_count, 0)                     used_count,
+       pc.event_id,
+       MAX(e.title)                                  event_title,
+       COUNT(DISTINCT oi.order_id)                   orders_with_promo,
+       COALESCE(SUM(oi.unit_price * oi.quantity), 0) total_sales_with_promo,
+       CASE
+           WHEN pc.discount_type = 'percent' THEN
+               COALESCE(SUM(oi.unit_price * oi.quantity * pc.discount_value / 100), 0)
+           WHEN pc.discount_type = 'fixed' THEN
+               pc.discount_value * COUNT(DISTINCT oi.order_id)
+           ELSE 0
+           END                                       total_discount_given,
+       CASE
+           WHEN pc.discount_type = 'percent' THEN
+               COALESCE(AVG(oi.unit_price * oi.quantity * pc.discount_value / 100), 0)
+           WHEN pc.discount_type = 'fixed' THEN
+               pc.discount_value
+           ELSE 0
+           END                                       avg_discount_per_order,
+       CASE
+           WHEN pc.max_uses > 0 THEN (COALESCE(u.used_count, 0) * 100 / pc.max_uses)::INTEGER
+           END                                       usage_percentage,
+       CASE
+           WHEN pc.valid_until < NOW() THEN 'expired'
+           WHEN pc.valid_from > NOW() THEN 'not_active_yet'
+           WHEN COALESCE(u.used_count, 0) >= pc.max_uses THEN 'limit_reached'
+           ELSE 'active'
+           END                                       promo_status,
+       now()::TIMESTAMP                              stale_as_of
+FROM promo_codes pc
+         LEFT JOIN (SELECT promo_code_id, SUM(used_count)::INT AS used_count
+                    FROM promo_code_usage_slots
+                    GROUP BY promo_code_id) u ON u.promo_code_id = pc.id
+         LEFT JOIN events e ON e.id = pc.event_id
+         LEFT JOIN order_items oi ON oi.promo_code_id = pc.id
+         LEFT JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+GROUP BY pc.id, u.used_count
+WITH DATA;
+
+CREATE UNIQUE INDEX idx_promo_code_effectiveness_view_id ON promo_code_effectiveness_view (promo_code_id);
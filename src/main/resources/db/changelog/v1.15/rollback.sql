@@ -0,0 +1,63 @@
+DROP MATERIALIZED VIEW IF EXISTS promo_code_effectiveness_view;
+
+ALTER TABLE promo_codes
+    ADD COLUMN used_count INT DEFAULT 0 NOT NULL CHECK (used_count >= 0);
+
+UPDATE promo_codes pc
+SET used_count = u.used_count
+FROM (SELECT promo_code_id, SUM(used_count) AS used_count
+      FROM promo_code_usage_slots
+      GROUP BY promo_code_id) u
+WHERE pc.id = u.promo_code_id;
+
+DROP TRIGGER IF EXISTS trg_promo_codes_usage_slots ON promo_codes;
+DROP FUNCTION IF EXISTS promo_codes_rebalance_usage_slots();
+DROP FUNCTION IF EXISTS rebalance_promo_code_usage_slots(BIGINT);
+DROP TABLE IF EXISTS promo_code_usage_slots;
+
+ALTER TABLE promo_codes
+    DROP COLUMN usage_slots;
+
+CREATE MATERIALIZED VIEW promo_code_effectiveness_view AS
+SELECT pc.id                                         AS promo_code_id,
+       pc.code,
+       pc.discount_type,
+       pc.discount_value,
+       pc.max_uses,
+       pc.used_count,
+       pc.event_id,
+       MAX(e.title)                                  event_title,
+       COUNT(DISTINCT oi.order_id)                   orders_with_promo,
+       COALESCE(SUM(oi.unit_price * oi.quantity), 0) total_sales_with_promo,
+       CASE
+           WHEN pc.discount_type = 'percent' THEN
+               COALESCE(SUM(oi.unit_price * oi.quantity * pc.discount_value / 100), 0)
+           WHEN pc.discount_type = 'fixed' THEN
+               pc.discount_value * COUNT(DISTINCT oi.order_id)
+           ELSE 0
+           END                                       total_discount_given,
+       CASE
+           WHEN pc.discount_type = 'percent' THEN
+               COALESCE(AVG(oi.unit_price * oi.quantity * pc.discount_value / 100), 0)
+           WHEN pc.discount_type = 'fixed' THEN
+               pc.discount_value
+           ELSE 0
+           END                                       avg_discount_per_order,
+       CASE
+           WHEN pc.max_uses > 0 THEN (pc.used_count * 100 / pc.max_uses)::INTEGER
+           END                                       usage_percentage,
+       CASE
+           WHEN pc.valid_until < NOW() THEN 'expired'
+           WHEN pc.valid_from > NOW() THEN 'not_active_yet'
+           WHEN pc.used_count >= pc.max_uses THEN 'limit_reached'
+           ELSE 'active'
+           END                                       promo_status,
+       now()::TIMESTAMP                              stale_as_of
+FROM promo_codes pc
+         LEFT JOIN events e ON e.id = pc.event_id
+         LEFT JOIN order_items oi ON oi.promo_code_id = pc.id
+         LEFT JOIN orders o ON o.id = oi.order_id AND o.status = 'confirmed'
+GROUP BY pc.id
+WITH DATA;
+
+CREATE UNIQUE INDEX idx_promo_code_effectiveness_view_id ON promo_code_effectiveness_view (promo_code_id);
@@ -0,0 +1,19 @@
+CREATE TABLE waiting_rooms
+(
+    event_id              BIGINT PRIMARY KEY REFERENCES events (id) ON DELETE CASCADE,
+    admissions_per_minute INTEGER   NOT NULL CHECK (admissions_per_minute > 0),
+    last_admission_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at            TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE waiting_room_entries
+(
+    id          BIGSERIAL PRIMARY KEY,
+    event_id    BIGINT    NOT NULL REFERENCES waiting_rooms (event_id) ON DELETE CASCADE,
+    user_id     BIGINT    NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    joined_at   TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    admitted_at TIMESTAMP,
+    UNIQUE (event_id, user_id)
+);
+
+CREATE INDEX idx_waiting_room_entries_waiting ON waiting_room_entries (event_id, id) WHERE admitted_at IS NULL;
@@ -0,0 +1,19 @@
+-- now() - начало транзакции, а не время коммита: дельта манифеста читает изменения с запасом по времени
+ALTER TABLE tickets
+    ADD COLUMN status_changed_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE OR REPLACE FUNCTION touch_ticket_status_changed_at() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.status IS DISTINCT FROM OLD.status THEN
+        NEW.status_changed_at := now();
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tickets_status_changed_at
+    BEFORE UPDATE OF status
+    ON tickets
+    FOR EACH ROW
+EXECUTE FUNCTION touch_ticket_status_changed_at();
@@ -0,0 +1,3 @@
+DROP TRIGGER IF EXISTS trg_tickets_status_changed_at ON tickets;
+DROP FUNCTION IF EXISTS touch_ticket_status_changed_at();
+ALTER TABLE tickets DROP COLUMN IF EXISTS status_changed_at;
@@ -0,0 +1,8 @@
+-- Только отмены: проход отмечает сам узел, выпуск новых билетов индекс и так отдает базе.
+-- Отмена мероприятия шлет по уведомлению на каждый билет: на узле это двоичный поиск по id в индексе
+CREATE TRIGGER trg_tickets_cancellation_notify
+    AFTER UPDATE OF status
+    ON tickets
+    FOR EACH ROW
+    WHEN (NEW.status = 'cancelled' AND OLD.status IS DISTINCT FROM NEW.status)
+EXECUTE FUNCTION notify_cache_invalidation('tickets', 'id');
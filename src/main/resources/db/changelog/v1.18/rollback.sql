@@ -0,0 +1 @@
+DROP TRIGGER IF EXISTS trg_tickets_cancellation_notify ON tickets;
@@ -0,0 +1,27 @@
+DROP VIEW IF EXISTS event_sales_view;
+
+CREATE VIEW event_sales_view AS
+SELECT e.id                                             event_id,
+       e.title                                          event_title,
+       tc.id                                            category_id,
+       tc.name                                          category_name,
+       COALESCE(s.tickets_sold, 0)                      tickets_sold,
+       tc.quantity_available                            tickets_available,
+       CASE
+           WHEN s.item_count > 0 THEN ROUND(s.unit_price_total / s.item_count, 2)
+           ELSE 0
+           END                                          avg_ticket_price,
+       COALESCE(w.tickets_sold, 0)::BIGINT              tickets_sold_last_7_days,
+       CASE
+           WHEN (tc.quantity_available + COALESCE(s.tickets_sold, 0)) > 0
+               THEN (COALESCE(s.tickets_sold, 0) * 100 / (tc.quantity_available + COALESCE(s.tickets_sold, 0)))::INTEGER
+           ELSE 0
+           END                                          sold_percentage,
+       COALESCE(s.revenue, 0)                           revenue
+FROM events e
+         JOIN ticket_categories tc ON tc.event_id = e.id
+         LEFT JOIN event_sales_summary s ON s.category_id = tc.id
+         LEFT JOIN LATERAL (SELECT SUM(h.tickets_sold) tickets_sold
+                            FROM event_sales_hourly h
+                            WHERE h.category_id = tc.id
+                              AND h.bucket_start >= date_trunc('hour', now() - INTERVAL '7 days')) w ON TRUE;
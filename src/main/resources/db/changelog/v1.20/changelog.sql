@@ -0,0 +1,6 @@
+ALTER TABLE events
+    DROP CONSTRAINT IF EXISTS events_event_status_check;
+
+ALTER TABLE events
+    ADD CONSTRAINT events_event_status_check
+        CHECK (event_status IN ('draft', 'published', 'cancelling', 'cancelled', 'completed'));
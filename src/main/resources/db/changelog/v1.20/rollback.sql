@@ -0,0 +1,11 @@
+-- Незавершенные отмены возвращаем в published: прежняя версия доведет их с этого статуса
+UPDATE events
+SET event_status = 'published'
+WHERE event_status = 'cancelling';
+
+ALTER TABLE events
+    DROP CONSTRAINT IF EXISTS events_event_status_check;
+
+ALTER TABLE events
+    ADD CONSTRAINT events_event_status_check
+        CHECK (event_status IN ('draft', 'published', 'cancelled', 'completed'));
@@ -0,0 +1,3 @@
+-- Допуск из очереди действует на один заказ: отметка ставится в транзакции создания заказа
+ALTER TABLE waiting_room_entries
+    ADD COLUMN used_at TIMESTAMP;
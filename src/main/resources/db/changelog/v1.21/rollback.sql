@@ -0,0 +1,2 @@
+ALTER TABLE waiting_room_entries
+    DROP COLUMN IF EXISTS used_at;
@@ -0,0 +1,12 @@
+CREATE TABLE inventory_slots
+(
+    ticket_category_id BIGINT      NOT NULL REFERENCES ticket_categories (id) ON DELETE CASCADE,
+    node_id            VARCHAR(64) NOT NULL,
+    slot               INT         NOT NULL,
+    quantity           INT         NOT NULL,
+    updated_at         TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (ticket_category_id, node_id, slot),
+    CHECK (quantity >= 0)
+);
+
+CREATE INDEX idx_inventory_slots_node_id ON inventory_slots (node_id, updated_at);
@@ -0,0 +1,8 @@
+UPDATE ticket_categories tc
+SET quantity_available = tc.quantity_available + s.quantity
+FROM (SELECT ticket_category_id, SUM(quantity) AS quantity
+      FROM inventory_slots
+      GROUP BY ticket_category_id) s
+WHERE tc.id = s.ticket_category_id;
+
+DROP TABLE IF EXISTS inventory_slots;
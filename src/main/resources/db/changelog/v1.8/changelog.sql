@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_orders_pending_created_at ON orders (created_at, id) WHERE status = 'pending';
+CREATE INDEX IF NOT EXISTS idx_payments_order_id ON payments (order_id);
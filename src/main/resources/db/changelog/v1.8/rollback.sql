@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS idx_orders_pending_created_at;
+DROP INDEX IF EXISTS idx_payments_order_id;
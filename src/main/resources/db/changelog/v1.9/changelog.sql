@@ -0,0 +1,15 @@
+UPDATE orders SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+UPDATE users SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE orders
+    ALTER COLUMN created_at SET NOT NULL;
+
+ALTER TABLE users
+    ALTER COLUMN created_at SET NOT NULL;
+
+DROP INDEX IF EXISTS idx_events_start_datetime;
+
+CREATE INDEX IF NOT EXISTS idx_events_start_datetime_id ON events (start_datetime DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at DESC, id DESC);
@@ -0,0 +1,12 @@
+DROP INDEX IF EXISTS idx_events_start_datetime_id;
+DROP INDEX IF EXISTS idx_orders_created_at_id;
+DROP INDEX IF EXISTS idx_orders_status_created_at_id;
+DROP INDEX IF EXISTS idx_users_created_at_id;
+
+CREATE INDEX IF NOT EXISTS idx_events_start_datetime ON events (start_datetime DESC);
+
+ALTER TABLE orders
+    ALTER COLUMN created_at DROP NOT NULL;
+
+ALTER TABLE users
+    ALTER COLUMN created_at DROP NOT NULL;
@@ -0,0 +1,102 @@
+package com.example.ticketingsystem.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void allowsFullBurstThenReportsWaitForNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 60, START);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(START)).isZero();
+        }
+        assertThat(bucket.tryAcquire(START)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, 60, START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        assertThat(bucket.tryAcquire(START + 400_000_000L)).isEqualTo(600_000_000L);
+        assertThat(bucket.tryAcquire(START + SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + SECOND)).isEqualTo(SECOND);
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire(START + 3 * SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, 60, START);
+        bucket.tryAcquire(START);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(START)).isPositive();
+        }
+        assertThat(bucket.tryAcquire(START + SECOND)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotGrowBurstBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 60, START);
+        long later = START + TimeUnit.HOURS.toNanos(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void concurrentCallersShareExactlyTheCapacity() throws Exception {
+        int capacity = 100;
+        TokenBucket bucket = new TokenBucket(capacity, 60, START);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (bucket.tryAcquire(START) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertThat(granted).isEqualTo(capacity);
+        }
+    }
+
+    @Test
+    void retryAfterRoundsWaitUpToWholeSeconds() {
+        assertThat(RateLimitFilter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(600_000_000L)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(SECOND)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(SECOND + 1)).isEqualTo(2);
+        assertThat(RateLimitFilter.retryAfterSeconds(30 * SECOND)).isEqualTo(30);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.TicketGateEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckInIndexTest {
+
+    private static final long EVENT_ID = 7L;
+
+    @Test
+    void findsTicketsByCodeWithTheirLoadedState() {
+        CheckInIndex index = CheckInIndex.build(List.of(
+                entry(1, "TKT-A", "active"),
+                entry(2, "TKT-B", "checked_in"),
+                entry(3, "TKT-C", "cancelled")));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(stateOf(index, "TKT-A")).isEqualTo(CheckInIndex.ACTIVE);
+        assertThat(stateOf(index, "TKT-B")).isEqualTo(CheckInIndex.CHECKED_IN);
+        assertThat(stateOf(index, "TKT-C")).isEqualTo(CheckInIndex.VOID);
+        assertThat(index.ticketId(index.find("TKT-B"))).isEqualTo(2);
+        assertThat(index.find("TKT-UNKNOWN")).isNegative();
+    }
+
+    @Test
+    void marksBothTicketsAmbiguousWhenFingerprintsCollide() {
+        Map<String, Long> fingerprints = Map.of("TKT-A", 10L, "TKT-B", 20L, "TKT-C", 20L, "TKT-D", 30L);
+        CheckInIndex index = CheckInIndex.build(List.of(
+                entry(1, "TKT-A", "active"),
+                entry(2, "TKT-B", "active"),
+                entry(3, "TKT-C", "checked_in"),
+                entry(4, "TKT-D", "active")), fingerprints::get);
+
+        assertThat(stateOf(index, "TKT-B")).isEqualTo(CheckInIndex.AMBIGUOUS);
+        assertThat(stateOf(index, "TKT-C")).isEqualTo(CheckInIndex.AMBIGUOUS);
+        assertThat(stateOf(index, "TKT-A")).isEqualTo(CheckInIndex.ACTIVE);
+        assertThat(stateOf(index, "TKT-D")).isEqualTo(CheckInIndex.ACTIVE);
+    }
+
+    @Test
+    void ambiguousEntriesStayWithTheDatabase() {
+        CheckInIndex index = CheckInIndex.build(List.of(
+                entry(1, "TKT-A", "active"),
+                entry(2, "TKT-B", "active")), code -> 42L);
+        int position = index.find("TKT-A");
+
+        index.update(position, "checked_in");
+        index.revoke(index.ticketId(position));
+
+        assertThat(index.state(position)).isEqualTo(CheckInIndex.AMBIGUOUS);
+    }
+
+    @Test
+    void statesOnlyMoveForward() {
+        CheckInIndex index = CheckInIndex.build(List.of(entry(1, "TKT-A", "active")));
+        int position = index.find("TKT-A");
+
+        index.update(position, "checked_in");
+        assertThat(index.state(position)).isEqualTo(CheckInIndex.CHECKED_IN);
+
+        // Запоздавший ответ базы не возвращает билет в ACTIVE
+        index.update(position, "active");
+        assertThat(index.state(position)).isEqualTo(CheckInIndex.CHECKED_IN);
+
+        index.update(position, "cancelled");
+        index.update(position, "checked_in");
+        assertThat(index.state(position)).isEqualTo(CheckInIndex.VOID);
+    }
+
+    @Test
+    void revokesByTicketId() {
+        CheckInIndex index = CheckInIndex.build(List.of(
+                entry(30, "TKT-A", "active"),
+                entry(10, "TKT-B", "active"),
+                entry(20, "TKT-C", "checked_in")));
+
+        assertThat(index.revoke(20)).isTrue();
+        assertThat(index.revoke(10)).isTrue();
+        assertThat(index.revoke(99)).isFalse();
+
+        assertThat(stateOf(index, "TKT-A")).isEqualTo(CheckInIndex.ACTIVE);
+        assertThat(stateOf(index, "TKT-B")).isEqualTo(CheckInIndex.VOID);
+        assertThat(stateOf(index, "TKT-C")).isEqualTo(CheckInIndex.VOID);
+    }
+
+    private static int stateOf(CheckInIndex index, String ticketCode) {
+        int position = index.find(ticketCode);
+        assertThat(position).as("position of %s", ticketCode).isNotNegative();
+        return index.state(position);
+    }
+
+    private static TicketGateEntry entry(long ticketId, String ticketCode, String status) {
+        return new TicketGateEntry(ticketId, ticketCode, status, EVENT_ID);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.model.Event;
+import com.example.ticketingsystem.repository.TicketDAO;
+import com.example.ticketingsystem.repository.TicketGateEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CheckInServiceTest {
+
+    private static final long EVENT_ID = 7L;
+
+    private TicketDAO ticketDAO;
+    private CheckInService checkInService;
+
+    @BeforeEach
+    void setUp() {
+        ticketDAO = mock(TicketDAO.class);
+        CatalogCache catalogCache = mock(CatalogCache.class);
+        when(catalogCache.getEvent(EVENT_ID)).thenReturn(Optional.of(new Event()));
+        RetryingTransactionExecutor transactionExecutor = mock(RetryingTransactionExecutor.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(transactionExecutor).run(anyString(), any());
+
+        checkInService = new CheckInService(ticketDAO, catalogCache, transactionExecutor, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void admitsThroughTheDatabaseAndRejectsRepeatsFromTheIndex() {
+        load(entry(1, "TKT-A", "active"));
+        when(ticketDAO.checkIn(1L)).thenReturn(1);
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ADMITTED);
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ALREADY_CHECKED_IN);
+
+        verify(ticketDAO, times(1)).checkIn(1L);
+        verify(ticketDAO, never()).findGateEntryByTicketCode(any());
+    }
+
+    @Test
+    void lostUpdateMeansTheTicketWasAdmittedElsewhere() {
+        load(entry(1, "TKT-A", "active"));
+        when(ticketDAO.checkIn(1L)).thenReturn(0);
+        when(ticketDAO.findStatusById(1L)).thenReturn(Optional.of("checked_in"));
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ALREADY_CHECKED_IN);
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ALREADY_CHECKED_IN);
+
+        verify(ticketDAO, times(1)).checkIn(1L);
+    }
+
+    @Test
+    void rejectsTicketCancelledAfterLoadWithoutTheDatabase() {
+        load(entry(1, "TKT-A", "active"), entry(2, "TKT-B", "active"));
+
+        checkInService.evict("tickets", 2L);
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-B").getOutcome()).isEqualTo(CheckInOutcome.NOT_VALID);
+        verify(ticketDAO, never()).checkIn(anyLong());
+    }
+
+    @Test
+    void ignoresInvalidationsForOtherEntities() {
+        load(entry(1, "TKT-A", "active"));
+        when(ticketDAO.checkIn(1L)).thenReturn(1);
+
+        checkInService.evict("events", 1L);
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ADMITTED);
+    }
+
+    @Test
+    void fallsBackToTheDatabaseWithoutALoadedIndex() {
+        when(ticketDAO.findGateEntryByTicketCode("TKT-A")).thenReturn(Optional.of(entry(1, "TKT-A", "active")));
+        when(ticketDAO.checkIn(1L)).thenReturn(1);
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-A").getOutcome()).isEqualTo(CheckInOutcome.ADMITTED);
+    }
+
+    @Test
+    void fallsBackToTheDatabaseForTicketsIssuedAfterLoad() {
+        load(entry(1, "TKT-A", "active"));
+        when(ticketDAO.findGateEntryByTicketCode("TKT-NEW")).thenReturn(Optional.of(entry(5, "TKT-NEW", "active")));
+        when(ticketDAO.checkIn(5L)).thenReturn(1);
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-NEW").getOutcome()).isEqualTo(CheckInOutcome.ADMITTED);
+        verify(ticketDAO).findGateEntryByTicketCode("TKT-NEW");
+    }
+
+    @Test
+    void rejectsTicketsOfAnotherEvent() {
+        when(ticketDAO.findGateEntryByTicketCode("TKT-X"))
+                .thenReturn(Optional.of(new TicketGateEntry(9L, "TKT-X", "active", EVENT_ID + 1)));
+
+        assertThat(checkInService.scan(EVENT_ID, "TKT-X").getOutcome()).isEqualTo(CheckInOutcome.UNKNOWN_TICKET);
+        verify(ticketDAO, never()).checkIn(anyLong());
+    }
+
+    private void load(TicketGateEntry... entries) {
+        doAnswer(invocation -> {
+            Consumer<TicketGateEntry> consumer = invocation.getArgument(2);
+            List.of(entries).forEach(consumer);
+            return null;
+        }).when(ticketDAO).streamGateEntriesByEventId(eq(EVENT_ID), anyInt(), any());
+        assertThat(checkInService.load(EVENT_ID)).isEqualTo(entries.length);
+    }
+
+    private static TicketGateEntry entry(long ticketId, String ticketCode, String status) {
+        return new TicketGateEntry(ticketId, ticketCode, status, EVENT_ID);
+    }
+}
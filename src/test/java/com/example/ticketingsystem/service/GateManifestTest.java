@@ -0,0 +1,174 @@
+package com.example.ticketingsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Манифест читается так, как его прочитал бы турникет: по смещениям из описания формата, без кода GateManifest
+class GateManifestTest {
+
+    private static final long EVENT_ID = 42L;
+
+    @Test
+    void fullManifestFollowsDocumentedLayout() throws IOException {
+        GateManifest.Builder builder = GateManifest.builder(EVENT_ID, 10);
+        Stream.of("TKT-A", "TKT-B", "TKT-C").forEach(builder::addValid);
+        builder.addRevoked("TKT-D");
+        GateManifest manifest = builder.build(1_000L, 0);
+
+        byte[] bytes = write(manifest);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        assertThat(bytes).hasSize((int) manifest.getSizeBytes());
+        assertThat(buffer.getInt(0)).isEqualTo(GateManifest.MAGIC);
+        assertThat(new String(bytes, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("TKMF");
+        assertThat(buffer.getShort(4)).isEqualTo(GateManifest.FORMAT_VERSION);
+        assertThat(buffer.getShort(6)).isEqualTo(GateManifest.KIND_FULL);
+        assertThat(buffer.getLong(8)).isEqualTo(EVENT_ID);
+        assertThat(buffer.getLong(16)).isEqualTo(1_000L);
+        assertThat(buffer.getLong(24)).isZero();
+        int bloomWords = buffer.getInt(32);
+        assertThat(bloomWords).isEqualTo(1);
+        assertThat(buffer.getInt(36)).isEqualTo(7);
+        assertThat(buffer.getInt(40)).isEqualTo(3);
+        assertThat(buffer.getInt(44)).isEqualTo(1);
+
+        assertThat(readLongs(buffer, 48 + 8 * bloomWords, 3))
+                .containsExactly(sorted(fingerprint("TKT-A"), fingerprint("TKT-B"), fingerprint("TKT-C")));
+        assertThat(readLongs(buffer, 48 + 8 * (bloomWords + 3), 1)).containsExactly(fingerprint("TKT-D"));
+        assertThat(manifest.isDelta()).isFalse();
+    }
+
+    @Test
+    void trailerIsCrc32cOfAllPrecedingBytes() throws IOException {
+        GateManifest.Builder builder = GateManifest.builder(EVENT_ID, 10);
+        builder.addValid("TKT-A");
+        builder.addRevoked("TKT-B");
+        byte[] bytes = write(builder.build(1_000L, 0));
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - 8);
+        assertThat(ByteBuffer.wrap(bytes).getLong(bytes.length - 8)).isEqualTo(crc.getValue());
+
+        bytes[20] ^= 1;
+        crc.reset();
+        crc.update(bytes, 0, bytes.length - 8);
+        assertThat(ByteBuffer.wrap(bytes).getLong(bytes.length - 8)).isNotEqualTo(crc.getValue());
+    }
+
+    @Test
+    void bloomFilterHasExactlyTheDocumentedBits() throws IOException {
+        GateManifest.Builder builder = GateManifest.builder(EVENT_ID, 10);
+        String[] codes = new String[100];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = "TKT-" + i;
+            builder.addValid(codes[i]);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(write(builder.build(1_000L, 0)));
+
+        int bloomWords = buffer.getInt(32);
+        int bloomHashes = buffer.getInt(36);
+        assertThat(bloomWords).isEqualTo(16);
+        long bits = bloomWords * 64L;
+        long[] expected = new long[bloomWords];
+        for (String code : codes) {
+            long fp = fingerprint(code);
+            for (int i = 0; i < bloomHashes; i++) {
+                long bit = ((fp & 0xffffffffL) + i * ((fp >>> 32) | 1)) % bits;
+                expected[(int) (bit / 64)] |= 1L << (bit % 64);
+            }
+        }
+
+        assertThat(readLongs(buffer, 48, bloomWords)).containsExactly(expected);
+    }
+
+    @Test
+    void deltaCarriesBaseVersionAndSortedValidAndRevokedSets() throws IOException {
+        GateManifest.Builder builder = GateManifest.builder(EVENT_ID, 10);
+        Stream.of("TKT-5", "TKT-1", "TKT-9").forEach(builder::addRevoked);
+        builder.addValid("TKT-7");
+        GateManifest manifest = builder.build(2_000L, 1_000L);
+
+        ByteBuffer buffer = ByteBuffer.wrap(write(manifest));
+        int bloomWords = buffer.getInt(32);
+
+        assertThat(manifest.isDelta()).isTrue();
+        assertThat(buffer.getShort(6)).isEqualTo(GateManifest.KIND_DELTA);
+        assertThat(buffer.getLong(16)).isEqualTo(2_000L);
+        assertThat(buffer.getLong(24)).isEqualTo(1_000L);
+        assertThat(readLongs(buffer, 48 + 8 * bloomWords, 1)).containsExactly(fingerprint("TKT-7"));
+        assertThat(readLongs(buffer, 48 + 8 * (bloomWords + 1), 3))
+                .containsExactly(sorted(fingerprint("TKT-1"), fingerprint("TKT-5"), fingerprint("TKT-9")));
+    }
+
+    @Test
+    void emptyManifestKeepsOneBloomWord() throws IOException {
+        GateManifest manifest = GateManifest.builder(EVENT_ID, 10).build(1_000L, 0);
+        ByteBuffer buffer = ByteBuffer.wrap(write(manifest));
+
+        assertThat(manifest.getSizeBytes()).isEqualTo(64);
+        assertThat(buffer.getInt(32)).isEqualTo(1);
+        assertThat(buffer.getLong(48)).isZero();
+        assertThat(buffer.getInt(40)).isZero();
+        assertThat(buffer.getInt(44)).isZero();
+    }
+
+    @Test
+    void fingerprintsAreScopedToTheEvent() throws IOException {
+        GateManifest.Builder first = GateManifest.builder(1L, 10);
+        GateManifest.Builder second = GateManifest.builder(2L, 10);
+        first.addValid("TKT-A");
+        second.addValid("TKT-A");
+
+        long firstFingerprint = ByteBuffer.wrap(write(first.build(1_000L, 0))).getLong(56);
+        long secondFingerprint = ByteBuffer.wrap(write(second.build(1_000L, 0))).getLong(56);
+
+        assertThat(firstFingerprint).isEqualTo(fingerprint(1L, "TKT-A"));
+        assertThat(firstFingerprint).isNotEqualTo(secondFingerprint);
+    }
+
+    private static byte[] write(GateManifest manifest) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manifest.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int offset, int count) {
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getLong(offset + 8 * i);
+        }
+        return values;
+    }
+
+    private static long[] sorted(long... values) {
+        long[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static long fingerprint(String ticketCode) {
+        return fingerprint(EVENT_ID, ticketCode);
+    }
+
+    private static long fingerprint(long eventId, String ticketCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(eventId).array());
+            byte[] hash = digest.digest(ticketCode.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
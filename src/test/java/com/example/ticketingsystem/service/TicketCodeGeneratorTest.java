@@ -0,0 +1,121 @@
+package com.example.ticketingsystem.service;
+
+import com.example.ticketingsystem.repository.TicketDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TicketCodeGeneratorTest {
+
+    private static final String BASE32 = "[0-9A-HJKMNP-TV-Z]";
+
+    private TicketDAO ticketDAO;
+    private AtomicLong nodeIds;
+
+    @BeforeEach
+    void setUp() {
+        ticketDAO = mock(TicketDAO.class);
+        nodeIds = new AtomicLong();
+        when(ticketDAO.nextCodeNodeId()).thenAnswer(invocation -> nodeIds.incrementAndGet());
+    }
+
+    @Test
+    void codesCarryNodeSequenceAndRandomTail() {
+        nodeIds.set(32);
+        TicketCodeGenerator generator = new TicketCodeGenerator(ticketDAO);
+
+        List<String> codes = generator.nextCodes(2);
+
+        assertThat(codes).hasSize(2).allSatisfy(code -> {
+            assertThat(code).hasSize(29);
+            assertThat(code).matches("TKT-" + BASE32 + "{7}-" + BASE32 + "{8}-" + BASE32 + "{8}");
+        });
+        assertThat(codes.get(0)).startsWith("TKT-0000011-00000000-");
+        assertThat(codes.get(1)).startsWith("TKT-0000011-00000001-");
+    }
+
+    @Test
+    void sequenceContinuesAcrossCallsWithinBlock() {
+        TicketCodeGenerator generator = new TicketCodeGenerator(ticketDAO);
+
+        generator.nextCodes(31);
+        List<String> codes = generator.nextCodes(2);
+
+        assertThat(codes.get(0)).startsWith("TKT-0000001-0000000Z-");
+        assertThat(codes.get(1)).startsWith("TKT-0000001-00000010-");
+        verify(ticketDAO, times(1)).nextCodeNodeId();
+    }
+
+    @Test
+    void emptyRequestDoesNotAllocateBlock() {
+        TicketCodeGenerator generator = new TicketCodeGenerator(ticketDAO);
+
+        assertThat(generator.nextCodes(0)).isEmpty();
+        verify(ticketDAO, never()).nextCodeNodeId();
+    }
+
+    @Test
+    void rotatesToNewNodeWhenBlockIsExhausted() {
+        TicketCodeGenerator generator = new TicketCodeGenerator(ticketDAO, 4);
+
+        List<String> first = generator.nextCodes(3);
+        List<String> last = generator.nextCodes(1);
+        List<String> rotated = generator.nextCodes(2);
+
+        assertThat(first).extracting(TicketCodeGeneratorTest::nodeAndSequence)
+                .containsExactly("TKT-0000001-00000000", "TKT-0000001-00000001", "TKT-0000001-00000002");
+        assertThat(last).extracting(TicketCodeGeneratorTest::nodeAndSequence)
+                .containsExactly("TKT-0000001-00000003");
+        // Пачка не делится между блоками: целиком уходит в новый
+        assertThat(rotated).extracting(TicketCodeGeneratorTest::nodeAndSequence)
+                .containsExactly("TKT-0000002-00000000", "TKT-0000002-00000001");
+        verify(ticketDAO, times(2)).nextCodeNodeId();
+    }
+
+    @Test
+    void concurrentCallersNeverShareCode() throws Exception {
+        TicketCodeGenerator generator = new TicketCodeGenerator(ticketDAO, 500);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int batch = 1 + t % 3;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> codes = new ArrayList<>();
+                    for (int i = 0; i < 200; i++) {
+                        codes.addAll(generator.nextCodes(batch));
+                    }
+                    return codes;
+                }));
+            }
+            start.countDown();
+
+            List<String> all = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                all.addAll(result.get());
+            }
+            Set<String> unique = new HashSet<>();
+            all.forEach(code -> unique.add(nodeAndSequence(code)));
+            assertThat(unique).hasSize(all.size());
+            assertThat(nodeIds.get()).isGreaterThan(1);
+        }
+    }
+
+    private static String nodeAndSequence(String code) {
+        return code.substring(0, code.lastIndexOf('-'));
+    }
+}